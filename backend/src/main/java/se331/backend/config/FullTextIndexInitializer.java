@@ -0,0 +1,45 @@
+package se331.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import se331.backend.search.NewsSearchMode;
+
+/**
+ * สร้าง FULLTEXT index ของตาราง news เมื่อใช้ news.search.mode = fulltext
+ * (JPA @Index สร้าง FULLTEXT ไม่ได้) ใช้ ngram parser เพราะข้อความภาษาไทยไม่มีการเว้นวรรคระหว่างคำ
+ */
+@Slf4j
+@Component
+public class FullTextIndexInitializer implements CommandLineRunner {
+
+    static final String INDEX_NAME = "ft_news_search";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${news.search.mode:like}")
+    private String searchMode;
+
+    @Override
+    public void run(String... args) {
+        if (NewsSearchMode.from(searchMode) != NewsSearchMode.FULLTEXT) {
+            return;
+        }
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.statistics "
+                        + "where table_schema = database() and table_name = 'news' and index_name = ?",
+                Integer.class, INDEX_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        log.info("Creating FULLTEXT index {} on news(topic, short_detail, reporter)", INDEX_NAME);
+        jdbcTemplate.execute("alter table news add fulltext index " + INDEX_NAME
+                + " (topic, short_detail, reporter) with parser ngram");
+    }
+}
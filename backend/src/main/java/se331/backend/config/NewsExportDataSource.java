@@ -0,0 +1,55 @@
+package se331.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * connection pool เล็กๆ ของ NDJSON export (NewsDao.forEach) แยกจาก pool หลัก
+ *
+ * URL เดียวกับ spring.datasource แต่เปิด useServerPrepStmts + useCursorFetch ให้ MySQL ส่งผลทีละชุดผ่าน
+ * server-side cursor (cursor ใช้ได้กับ server prepared statement เท่านั้น) connection ของ pool หลักจึงไม่ถูกแก้
+ * property ของ driver และ query อื่นไม่ต้องเสีย round trip ของ cursor
+ * ไม่ได้ลงทะเบียนเป็น DataSource bean เพื่อไม่ให้ Spring Boot เลิกสร้าง DataSource หลัก
+ */
+@Component
+public class NewsExportDataSource {
+
+    private static final String CURSOR_FETCH = "useServerPrepStmts=true&useCursorFetch=true";
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${news.export.max-connections:4}")
+    private int maxConnections;
+
+    private HikariDataSource dataSource;
+
+    @PostConstruct
+    void init() {
+        String url = dataSourceProperties.determineUrl();
+        dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url + (url.contains("?") ? "&" : "?") + CURSOR_FETCH)
+                .build();
+        dataSource.setPoolName("news-export");
+        dataSource.setMaximumPoolSize(maxConnections);
+        dataSource.setMinimumIdle(0); // ไม่ถือ connection ไว้ระหว่างที่ไม่มี export
+    }
+
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
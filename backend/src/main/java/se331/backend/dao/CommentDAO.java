@@ -4,9 +4,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import se331.backend.entity.Comment;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentDAO {
     Comment save(Comment comment);
+
+    // INSERT หลายรายการเป็น JDBC batch แล้วใส่ id ให้แต่ละ comment (comment จะถูก detach หลังบันทึก)
+    void insertAll(List<Comment> comments);
     Page<Comment> findByNewsId(Long newsId, Pageable pageable);
+    Page<Comment> searchByUsername(String username, Pageable pageable);
+    List<Comment> findLatestByNewsIds(Collection<Long> newsIds, int perNews);
     void deleteById(Long id);
     Comment findById(Long id);
 }
\ No newline at end of file
@@ -1,18 +1,34 @@
 package se331.backend.dao;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import se331.backend.entity.Comment;
 import se331.backend.repository.CommentRepository;
+import se331.backend.search.NewsTrigramIndex;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public class CommentDAOImpl implements CommentDAO {
 
+    // comment ต่อรอบ flush ของ insertAll
+    private static final int FLUSH_EVERY = 1000;
+
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private NewsTrigramIndex newsTrigramIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public Comment save(Comment comment) {
         System.out.println("=== DAO: Saving comment ===");
@@ -20,17 +36,51 @@ public class CommentDAOImpl implements CommentDAO {
         System.out.println("Vote: " + comment.getVote());
         System.out.println("News ID: " + (comment.getNews() != null ? comment.getNews().getId() : "null"));
 
-        Comment saved = commentRepository.save(comment);
+        // flush ทันที: id ไม่ได้มาจาก INSERT แล้ว จึงต้องบังคับให้ unique constraint ถูกตรวจตรงนี้ (ไม่ใช่ตอน commit)
+        Comment saved = commentRepository.saveAndFlush(comment);
 
         System.out.println("=== DAO: Comment saved with ID: " + saved.getId() + " ===");
         return saved;
     }
 
+    @Override
+    public void insertAll(List<Comment> comments) {
+        // id มาจาก pooled generator (ไม่ต้องรอ AUTO_INCREMENT ทีละแถว) Hibernate จึงรวม INSERT เป็น JDBC batch
+        // ตาม hibernate.jdbc.batch_size และ rewriteBatchedStatements ทำให้เป็น multi-row INSERT
+        for (int from = 0; from < comments.size(); from += FLUSH_EVERY) {
+            List<Comment> chunk = comments.subList(from, Math.min(from + FLUSH_EVERY, comments.size()));
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            chunk.forEach(entityManager::detach); // ไม่สะสม comment นับพันใน persistence context
+        }
+    }
+
     @Override
     public Page<Comment> findByNewsId(Long newsId, Pageable pageable) {
         return commentRepository.findByNewsId(newsId, pageable);
     }
 
+    @Override
+    public Page<Comment> searchByUsername(String username, Pageable pageable) {
+        if (!newsTrigramIndex.isEnabled()) {
+            return commentRepository.findByUsernameContainingIgnoreCase(username, pageable);
+        }
+        // trigram index หา id ที่ตรง แล้วให้ database เรียงและแบ่งหน้า
+        List<Long> ids = newsTrigramIndex.findCommentIds(username);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        return commentRepository.findByIdIn(ids, pageable);
+    }
+
+    @Override
+    public List<Comment> findLatestByNewsIds(Collection<Long> newsIds, int perNews) {
+        if (newsIds.isEmpty() || perNews < 1) {
+            return List.of();
+        }
+        return commentRepository.findLatestByNewsIds(newsIds, perNews);
+    }
+
     @Override
     public void deleteById(Long id) {
         commentRepository.deleteById(id);
@@ -38,7 +88,7 @@ public class CommentDAOImpl implements CommentDAO {
 
     @Override
     public Comment findById(Long id) {
-        return commentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
+        // ไม่พบ = null (ผู้เรียกตรวจเองแล้วตอบ 404 หรือข้าม)
+        return commentRepository.findById(id).orElse(null);
     }
 }
\ No newline at end of file
@@ -1,27 +1,63 @@
 package se331.backend.dao;
 
 import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.Vote;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import se331.backend.util.NewsCursor;
 
+/**
+ * paged lookups return a Slice (no COUNT(*)); totals come from count(), which NewsService caches.
+ * list/search lookups return NewsSummaryDTO projections, only findById loads the full entity with comments
+ */
 public interface NewsDao {
     List<News> findAll();
     Optional<News> findById(Long id);
+    List<NewsSummaryDTO> findSummariesById(Collection<Long> ids);
+    List<NewsSummaryDTO> findAllSummaries(String status, boolean includeRemoved, Sort sort);
     News save(News news);
     void deleteById(Long id);
 
+    // อ้างถึงข่าวโดยไม่ select (เช่นเป็น news ของ comment ใหม่)
+    News getReference(Long id);
+
+    // โหวตใหม่ (delta = 1) หรือลบโหวต (delta = -1) แบบ atomic ใน database
+    // คืนค่าข่าวหลังปรับ หรือ empty ถ้าไม่มีข่าวนี้
+    Optional<NewsSummaryDTO> addVote(Long newsId, Vote vote, int delta);
+
+    // ยอดรวมของหลายโหวตในข่าวเดียว (นำเข้าเป็นชุด) ข่าวต้องมีอยู่จริง ไม่อ่านค่ากลับ
+    void addVotes(Long newsId, int real, int fake, int comments);
+
     // users
-    Page<News> searchByKeyword(String keyword, Pageable pageable);
-    Page<News> findAllVisible(Pageable pageable);
-    Page<News> searchByKeywordAndStatus(String keyword, String status, Pageable pageable);
-    Page<News> findAllVisibleByStatus(String status, Pageable pageable);
+    Slice<NewsSummaryDTO> searchByKeyword(String keyword, Pageable pageable);
+    Slice<NewsSummaryDTO> findAllVisible(Pageable pageable);
+    Slice<NewsSummaryDTO> searchByKeywordAndStatus(String keyword, String status, Pageable pageable);
+    Slice<NewsSummaryDTO> findAllVisibleByStatus(String status, Pageable pageable);
 
     // admin
-    Page<News> searchByKeywordIncludingRemoved(String keyword, Pageable pageable);
-    Page<News> findAll(Pageable pageable);
-    Page<News> searchByKeywordAndStatusIncludingRemoved(String keyword, String status, Pageable pageable);
-    Page<News> findAllByStatus(String status, Pageable pageable);
+    Slice<NewsSummaryDTO> searchByKeywordIncludingRemoved(String keyword, Pageable pageable);
+    Slice<NewsSummaryDTO> findAll(Pageable pageable);
+    Slice<NewsSummaryDTO> searchByKeywordAndStatusIncludingRemoved(String keyword, String status, Pageable pageable);
+    Slice<NewsSummaryDTO> findAllByStatus(String status, Pageable pageable);
+
+    // keyset pagination (includeRemoved = admin)
+    List<NewsSummaryDTO> findAfter(String keyword, String status, boolean includeRemoved, Sort sort, NewsCursor after, int limit);
+    long count(String keyword, String status, boolean includeRemoved);
+
+    // อ่านทีละแถวผ่าน database cursor (ไม่โหลดทั้งตารางเข้าหน่วยความจำ)
+    void forEach(String status, boolean includeRemoved, Sort sort, Consumer<NewsSummaryDTO> action);
+
+    // จำนวนข่าวที่ตรงกับ keyword ต่อ (removed, status, reporter) ใน GROUP BY เดียว
+    List<FacetCount> countByStatusAndReporter(String keyword, boolean includeRemoved);
+
+    record FacetCount(boolean removed, NewsStatus status, String reporter, long count) {
+    }
 }
\ No newline at end of file
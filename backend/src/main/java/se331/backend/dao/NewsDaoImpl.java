@@ -1,24 +1,101 @@
 package se331.backend.dao;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.stereotype.Repository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import se331.backend.config.NewsExportDataSource;
 import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.Vote;
 import se331.backend.repository.NewsRepository;
-
+import se331.backend.repository.NewsSpecifications;
+import se331.backend.search.NewsSearchIndex;
+import se331.backend.search.NewsSearchMode;
+import se331.backend.search.NewsTrigramIndex;
+import se331.backend.service.NewsVoteBuffer;
+import se331.backend.util.NewsComparators;
+import se331.backend.util.NewsCursor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class NewsDaoImpl implements NewsDao {
 
+    private static final String RELEVANCE = "relevance";
+
+    // news.search.mode = fulltext: WHERE ของ native query (ต้องมี FULLTEXT index ft_news_search)
+    private static final String FULLTEXT_MATCH =
+            "match(n.topic, n.short_detail, n.reporter) against (:keyword in natural language mode)";
+    private static final String FULLTEXT_FROM = """
+             from news n
+            where %s
+              and (:includeRemoved = true or n.removed = false)
+              and (:removedOnly = false or n.removed = true)
+              and (:status is null or (n.removed = false and n.status = :status))
+            """.formatted(FULLTEXT_MATCH);
+
+    // _sort ที่เรียงได้ใน native query (property -> column)
+    private static final Map<String, String> FULLTEXT_SORT_COLUMNS = Map.of(
+            "dateTime", "n.date_time",
+            "totalVotes", "n.total_votes",
+            "commentCount", "n.comment_count");
+
+    // แถวต่อรอบของ server-side cursor ของ forEach (connection จาก NewsExportDataSource)
+    private static final int STREAM_FETCH_SIZE = 500;
+
     @Autowired
     private NewsRepository newsRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NewsExportDataSource newsExportDataSource;
+
+    @Autowired
+    private NewsSearchIndex newsSearchIndex;
+
+    @Autowired
+    private NewsTrigramIndex newsTrigramIndex;
+
+    @Autowired
+    private NewsVoteBuffer newsVoteBuffer;
+
+    @Value("${news.search.mode:like}")
+    private String searchMode;
+
     @Override
     public List<News> findAll() {
         return newsRepository.findAll();
@@ -29,6 +106,19 @@ public class NewsDaoImpl implements NewsDao {
         return newsRepository.findById(id);
     }
 
+    @Override
+    public List<NewsSummaryDTO> findSummariesById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withPendingVotes(() -> summaryQuery(NewsSpecifications.idIn(ids)).getResultList());
+    }
+
+    @Override
+    public List<NewsSummaryDTO> findAllSummaries(String status, boolean includeRemoved, Sort sort) {
+        return withPendingVotes(() -> summaryQuery(NewsSpecifications.search(null, status, includeRemoved, sort)).getResultList(), sort);
+    }
+
     @Override
     public News save(News news) {
         return newsRepository.save(news);
@@ -40,198 +130,473 @@ public class NewsDaoImpl implements NewsDao {
     }
 
     @Override
-    public Page<News> findAll(Pageable pageable) {
-        List<News> allNews = newsRepository.findAll();
-        return createPageFromList(allNews, pageable);
+    public News getReference(Long id) {
+        return newsRepository.getReferenceById(id);
     }
 
     @Override
-    public Page<News> findAllVisible(Pageable pageable) {
-        List<News> allVisible = newsRepository.findByRemovedFalse(Pageable.unpaged()).getContent();
-        return createPageFromList(allVisible, pageable);
+    public Optional<NewsSummaryDTO> addVote(Long newsId, Vote vote, int delta) {
+        int real = vote == Vote.REAL ? delta : 0;
+        int fake = vote == Vote.FAKE ? delta : 0;
+        if (newsVoteBuffer.isEnabled()) {
+            // write-behind: ไม่ UPDATE แถวข่าวทุกโหวต บวกเข้า buffer แล้ว flush เป็น batch ภายหลัง
+            Optional<NewsSummaryDTO> news = findSummariesById(List.of(newsId)).stream().findFirst();
+            news.ifPresent(found -> {
+                newsVoteBuffer.add(newsId, real, fake, delta);
+                newsVoteBuffer.merge(found, real, fake, delta);
+            });
+            return news;
+        }
+        if (newsRepository.addVotes(newsId, real, fake, delta) == 0) {
+            return Optional.empty();
+        }
+        // อ่านผ่าน projection เสมอ (entity ใน persistence context อาจยังเป็นค่าก่อน UPDATE)
+        return findSummariesById(List.of(newsId)).stream().findFirst();
     }
 
     @Override
-    public Page<News> findAllByStatus(String status, Pageable pageable) {
-        List<News> allNews = newsRepository.findAll(Pageable.unpaged()).getContent();
-        List<News> filteredByStatus = filterByStatusIncludingRemoved(allNews, status);
-        return createPageFromList(filteredByStatus, pageable);
+    public void addVotes(Long newsId, int real, int fake, int comments) {
+        if (newsVoteBuffer.isEnabled()) {
+            newsVoteBuffer.add(newsId, real, fake, comments);
+        } else {
+            newsRepository.addVotes(newsId, real, fake, comments);
+        }
     }
 
     @Override
-    public Page<News> findAllVisibleByStatus(String status, Pageable pageable) {
-        List<News> allVisible = newsRepository.findByRemovedFalse(Pageable.unpaged()).getContent();
-        List<News> filteredByStatus = filterByStatus(allVisible, status);
-        return createPageFromList(filteredByStatus, pageable);
+    public Slice<NewsSummaryDTO> findAll(Pageable pageable) {
+        return findPage(null, null, true, pageable);
     }
 
+    @Override
+    public Slice<NewsSummaryDTO> findAllVisible(Pageable pageable) {
+        return findPage(null, null, false, pageable);
+    }
 
     @Override
-    public Page<News> searchByKeyword(String keyword, Pageable pageable) {
+    public Slice<NewsSummaryDTO> findAllByStatus(String status, Pageable pageable) {
+        return findPage(null, status, true, pageable);
+    }
 
-        Set<News> results = new LinkedHashSet<>();
+    @Override
+    public Slice<NewsSummaryDTO> findAllVisibleByStatus(String status, Pageable pageable) {
+        return findPage(null, status, false, pageable);
+    }
 
-        List<News> topicResults = newsRepository.findByRemovedFalseAndTopicContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(topicResults);
+    @Override
+    public Slice<NewsSummaryDTO> searchByKeyword(String keyword, Pageable pageable) {
+        return searchPage(keyword, null, false, pageable);
+    }
 
-        List<News> shortDetailResults = newsRepository.findByRemovedFalseAndShortDetailContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(shortDetailResults);
+    @Override
+    public Slice<NewsSummaryDTO> searchByKeywordIncludingRemoved(String keyword, Pageable pageable) {
+        return searchPage(keyword, null, true, pageable);
+    }
 
-        List<News> reporterResults = newsRepository.findByRemovedFalseAndReporterContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(reporterResults);
+    @Override
+    public Slice<NewsSummaryDTO> searchByKeywordAndStatus(String keyword, String status, Pageable pageable) {
+        return searchPage(keyword, status, false, pageable);
+    }
 
-        return createPageFromList(new ArrayList<>(results), pageable);
+    @Override
+    public Slice<NewsSummaryDTO> searchByKeywordAndStatusIncludingRemoved(String keyword, String status, Pageable pageable) {
+        return searchPage(keyword, status, true, pageable);
     }
 
     @Override
-    public Page<News> searchByKeywordIncludingRemoved(String keyword, Pageable pageable) {
-        Set<News> results = new LinkedHashSet<>();
+    public List<NewsSummaryDTO> findAfter(String keyword, String status, boolean includeRemoved, Sort sort, NewsCursor after, int limit) {
+        if (isFullText(keyword)) {
+            return fullTextFindAfter(keyword, status, includeRemoved, sort, after, limit);
+        }
+        Specification<News> specification = filter(keyword, status, includeRemoved, sort);
+        if (specification == null) {
+            return List.of();
+        }
+        if (after != null) {
+            specification = specification.and(NewsSpecifications.after(after));
+        }
+        // ไม่ใช้ Page เพื่อไม่ให้มี COUNT(*) ต่อท้าย: seek + LIMIT อย่างเดียว
+        Specification<News> seek = specification;
+        return withPendingVotes(() -> summaryQuery(seek).setMaxResults(limit).getResultList());
+    }
 
-        List<News> topicResults = newsRepository.findByTopicContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(topicResults);
+    @Override
+    public long count(String keyword, String status, boolean includeRemoved) {
+        if (isFullText(keyword)) {
+            return fullTextQuery("select count(*)" + FULLTEXT_FROM, keyword, status, includeRemoved)
+                    .map(query -> ((Number) query.getSingleResult()).longValue())
+                    .orElse(0L);
+        }
+        Specification<News> specification = filter(keyword, status, includeRemoved, Sort.unsorted());
+        return specification == null ? 0 : newsRepository.count(specification);
+    }
 
-        List<News> shortDetailResults = newsRepository.findByShortDetailContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(shortDetailResults);
+    @Override
+    public void forEach(String status, boolean includeRemoved, Sort sort, Consumer<NewsSummaryDTO> action) {
+        // อ่านผ่าน server-side cursor บน connection ของ export pool (useCursorFetch อยู่ใน URL ของ pool นั้น)
+        // action ยัง query comment ล่าสุดผ่าน connection หลักได้ระหว่าง stream
+        // projection ไม่ใช่ managed entity จึงไม่สะสมใน persistence context (ไม่ต้อง clear)
+        try (Connection connection = newsExportDataSource.getConnection();
+             Session session = entityManagerFactory.unwrap(SessionFactory.class)
+                     .withOptions().connection(connection).openSession()) {
+            session.setDefaultReadOnly(true);
+            TypedQuery<NewsSummaryDTO> query = summaryQuery(session, NewsSpecifications.search(null, status, includeRemoved, sort))
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+            // read lock ของ vote buffer ถือแค่ตอนเปิด cursor: MySQL materialize ผลของ cursor ตอน execute
+            // จึงคู่กับยอดค้าง ณ ตอนนั้นพอดี แล้วรวมยอดจาก snapshot นั้นนอก lock (client ช้าไม่ขวาง flush)
+            try (OpenCursor cursor = newsVoteBuffer.read(() -> OpenCursor.open(query, newsVoteBuffer))) {
+                while (cursor.iterator().hasNext()) {
+                    NewsSummaryDTO news = cursor.iterator().next();
+                    NewsVoteBuffer.merge(news, cursor.pending().getOrDefault(news.getId(), NewsVoteBuffer.Delta.NONE));
+                    action.accept(news);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new CannotGetJdbcConnectionException("Could not open news export connection", ex);
+        }
+    }
 
-        List<News> reporterResults = newsRepository.findByReporterContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(reporterResults);
+    private record OpenCursor(Stream<NewsSummaryDTO> rows, Iterator<NewsSummaryDTO> iterator,
+                              Map<Long, NewsVoteBuffer.Delta> pending) implements AutoCloseable {
+
+        static OpenCursor open(TypedQuery<NewsSummaryDTO> query, NewsVoteBuffer buffer) {
+            Stream<NewsSummaryDTO> rows = query.getResultStream();
+            try {
+                Iterator<NewsSummaryDTO> iterator = rows.iterator();
+                iterator.hasNext(); // ให้ execute (เปิด cursor) ตอนนี้ ไม่ใช่ตอนอ่านแถวแรกนอก lock
+                return new OpenCursor(rows, iterator, buffer.snapshot());
+            } catch (RuntimeException ex) {
+                rows.close();
+                throw ex;
+            }
+        }
 
-        return createPageFromList(new ArrayList<>(results), pageable);
+        @Override
+        public void close() {
+            rows.close();
+        }
     }
 
     @Override
-    public Page<News> searchByKeywordAndStatus(String keyword, String status, Pageable pageable) {
-        Set<News> results = new LinkedHashSet<>();
-
-        List<News> topicResults = newsRepository.findByRemovedFalseAndTopicContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(topicResults);
-
-        List<News> shortDetailResults = newsRepository.findByRemovedFalseAndShortDetailContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(shortDetailResults);
+    public List<FacetCount> countByStatusAndReporter(String keyword, boolean includeRemoved) {
+        if (isFullText(keyword)) {
+            return fullTextFacets(keyword, includeRemoved);
+        }
+        Specification<News> specification = filter(keyword, null, includeRemoved, Sort.unsorted());
+        if (specification == null) {
+            return List.of();
+        }
 
-        List<News> reporterResults = newsRepository.findByRemovedFalseAndReporterContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(reporterResults);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<News> root = query.from(News.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(
+                        root.get("removed").alias("removed"),
+                        root.get("status").alias("status"),
+                        root.get("reporter").alias("reporter"),
+                        cb.count(root).alias("count"))
+                .groupBy(root.get("removed"), root.get("status"), root.get("reporter"));
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new FacetCount(
+                        row.get("removed", Boolean.class),
+                        row.get("status", NewsStatus.class),
+                        row.get("reporter", String.class),
+                        row.get("count", Long.class)))
+                .collect(Collectors.toList());
+    }
 
-        List<News> filteredByStatus = filterByStatus(new ArrayList<>(results), status);
+    /**
+     * WHERE ของการค้นหาตาม news.search.mode (keyword ใน index/trigram ถูกแปลงเป็น id IN (...))
+     * fulltext ไม่ผ่านที่นี่: ทุกทาง (หน้า, cursor, count, facets) เป็น native query ที่มี MATCH อยู่ใน WHERE
+     *
+     * @return null ถ้ารู้แล้วว่าไม่มีข่าวไหนตรง
+     */
+    private Specification<News> filter(String keyword, String status, boolean includeRemoved, Sort sort) {
+        if (keyword == null || keyword.isBlank()) {
+            return NewsSpecifications.search(null, status, includeRemoved, sort);
+        }
 
-        return createPageFromList(filteredByStatus, pageable);
+        List<Long> matchingIds;
+        switch (NewsSearchMode.from(searchMode)) {
+            case INDEX:
+                matchingIds = Arrays.stream(newsSearchIndex.search(keyword, true, includeRemoved))
+                        .boxed().collect(Collectors.toList());
+                break;
+            case FULLTEXT:
+                throw new IllegalStateException("FULLTEXT searches run as native queries");
+            case TRIGRAM:
+                matchingIds = newsTrigramIndex.findNewsIds(keyword);
+                break;
+            default:
+                return NewsSpecifications.search(keyword, status, includeRemoved, sort);
+        }
+        if (matchingIds.isEmpty()) {
+            return null;
+        }
+        return NewsSpecifications.search(null, status, includeRemoved, sort)
+                .and(NewsSpecifications.idIn(matchingIds));
     }
 
-    @Override
-    public Page<News> searchByKeywordAndStatusIncludingRemoved(String keyword, String status, Pageable pageable) {
-        Set<News> results = new LinkedHashSet<>();
+    /**
+     * Keyword searches follow news.search.mode: LIKE predicate in NewsSpecifications (default),
+     * the in-memory BM25 index, MySQL FULLTEXT, or the in-memory trigram index.
+     */
+    private Slice<NewsSummaryDTO> searchPage(String keyword, String status, boolean includeRemoved, Pageable pageable) {
+        return switch (NewsSearchMode.from(searchMode)) {
+            case INDEX -> indexSearchPage(keyword, status, includeRemoved, pageable);
+            case FULLTEXT -> fullTextSearchPage(keyword, status, includeRemoved, pageable);
+            case TRIGRAM -> trigramSearchPage(keyword, status, includeRemoved, pageable);
+            default -> findPage(keyword, status, includeRemoved, pageable);
+        };
+    }
 
-        List<News> topicResults = newsRepository.findByTopicContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(topicResults);
+    private Slice<NewsSummaryDTO> indexSearchPage(String keyword, String status, boolean includeRemoved, Pageable pageable) {
+        boolean removedOnly = "removed".equalsIgnoreCase(status);
+        long[] ranked = newsSearchIndex.search(keyword, !removedOnly, includeRemoved);
+        if (ranked.length == 0) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        List<Long> matchingIds = Arrays.stream(ranked).boxed().collect(Collectors.toList());
 
-        List<News> shortDetailResults = newsRepository.findByShortDetailContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(shortDetailResults);
+        // sort ปกติ (dateTime, totalVotes, ...) ให้ database เรียงและแบ่งหน้าจาก id ที่ index หาเจอ
+        if (!isRelevanceSort(pageable)) {
+            return findPage(NewsSpecifications.search(null, status, includeRemoved, pageable.getSort())
+                    .and(NewsSpecifications.idIn(matchingIds)), pageable);
+        }
 
-        List<News> reporterResults = newsRepository.findByReporterContainingIgnoreCase(keyword, Pageable.unpaged()).getContent();
-        results.addAll(reporterResults);
+        // _sort=relevance: คงลำดับ BM25 ไว้ แล้วค่อยโหลดเฉพาะข่าวในหน้านั้น
+        if (hasStatus(status) && !removedOnly) {
+            NewsStatus newsStatus = NewsStatus.fromParam(status);
+            if (newsStatus == null) {
+                return new SliceImpl<>(List.of(), pageable, false);
+            }
+            Set<Long> withStatus = new HashSet<>(newsRepository.findVisibleIdsByStatus(matchingIds, newsStatus));
+            matchingIds.removeIf(id -> !withStatus.contains(id));
+        }
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAllInOrder(matchingIds), pageable, false);
+        }
+        int start = (int) Math.min(pageable.getOffset(), matchingIds.size());
+        int end = Math.min(start + pageable.getPageSize(), matchingIds.size());
+        return new SliceImpl<>(findAllInOrder(matchingIds.subList(start, end)), pageable, end < matchingIds.size());
+    }
 
-        List<News> filteredByStatus = filterByStatusIncludingRemoved(new ArrayList<>(results), status);
-        return createPageFromList(filteredByStatus, pageable);
+    /**
+     * กรอง status/removed, เรียง (คะแนน MATCH หรือ _sort ปกติ) และ LIMIT/OFFSET ใน native query เดียว
+     * แล้วโหลด summary เฉพาะข่าวในหน้านั้น ไม่ดึง id ที่ตรงทั้งหมดกลับมาก่อน
+     */
+    private Slice<NewsSummaryDTO> fullTextSearchPage(String keyword, String status, boolean includeRemoved, Pageable pageable) {
+        String sql = "select n.id" + FULLTEXT_FROM + " order by " + fullTextOrderBy(pageable.getSort());
+        Optional<Query> query = fullTextQuery(sql, keyword, status, includeRemoved);
+        if (query.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAllInOrder(ids(query.get().getResultList())), pageable, false);
+        }
+        List<Long> ids = ids(query.get()
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList());
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(findAllInOrder(hasNext ? ids.subList(0, pageable.getPageSize()) : ids), pageable, hasNext);
     }
 
-    private List<News> filterByStatus(List<News> newsList, String status) {
-        if (status == null || status.equalsIgnoreCase("all")) {
-            return newsList;
+    /**
+     * keyset ใน native query เดียวกับ fullTextSearchPage: seek ตาม cursor (id desc เป็นตัวตัดสิน
+     * เหมือน NewsSpecifications.after) แล้ว LIMIT
+     */
+    private List<NewsSummaryDTO> fullTextFindAfter(String keyword, String status, boolean includeRemoved, Sort sort,
+                                                   NewsCursor after, int limit) {
+        String seek = "";
+        if (after != null) {
+            String column = FULLTEXT_SORT_COLUMNS.get(after.getProperty());
+            String beyond = after.isAscending() ? ">" : "<";
+            seek = "  and (%1$s %2$s :afterValue or (%1$s = :afterValue and n.id < :afterId))\n".formatted(column, beyond);
+        }
+        String sql = "select n.id" + FULLTEXT_FROM + seek + " order by " + fullTextOrderBy(sort);
+        Optional<Query> query = fullTextQuery(sql, keyword, status, includeRemoved);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        if (after != null) {
+            query.get()
+                    .setParameter("afterValue", after.isDateTime() ? after.getDateTimeValue() : after.getTotalVotesValue())
+                    .setParameter("afterId", after.getId());
         }
+        return findAllInOrder(ids(query.get().setMaxResults(limit).getResultList()));
+    }
 
-        return newsList.stream()
-                .filter(news -> {
-                    String newsStatus = calculateStatus(news);
-                    return newsStatus.equalsIgnoreCase(status);
-                })
+    // GROUP BY บน WHERE เดียวกับหน้าค้นหา fulltext (ไม่ดึง id ที่ตรงกลับมาก่อน)
+    private List<FacetCount> fullTextFacets(String keyword, boolean includeRemoved) {
+        String sql = "select n.removed, n.status, n.reporter, count(*)" + FULLTEXT_FROM
+                + " group by n.removed, n.status, n.reporter";
+        List<?> rows = fullTextQuery(sql, keyword, null, includeRemoved)
+                .map(Query::getResultList)
+                .orElse(List.of());
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(row -> new FacetCount(
+                        toBoolean(row[0]),
+                        NewsStatus.valueOf((String) row[1]),
+                        (String) row[2],
+                        ((Number) row[3]).longValue()))
                 .collect(Collectors.toList());
     }
 
-    private List<News> filterByStatusIncludingRemoved(List<News> newsList, String status) {
-        if (status == null || status.equalsIgnoreCase("all")) {
-            return newsList; // ส่งกลับทั้งหมด
-        }
+    // column boolean (bit(1)) อาจกลับมาเป็น Boolean หรือตัวเลขตาม driver
+    private static boolean toBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : ((Number) value).intValue() != 0;
+    }
 
-        if (status.equalsIgnoreCase("removed")) {
-            return newsList.stream()
-                    .filter(News::isRemoved)
-                    .collect(Collectors.toList());
+    private boolean isFullText(String keyword) {
+        return NewsSearchMode.from(searchMode) == NewsSearchMode.FULLTEXT && keyword != null && !keyword.isBlank();
+    }
+
+    /**
+     * @return empty ถ้า status ไม่ตรงกับข่าวใดเลย
+     */
+    private Optional<Query> fullTextQuery(String sql, String keyword, String status, boolean includeRemoved) {
+        boolean removedOnly = "removed".equalsIgnoreCase(status);
+        String statusName = null;
+        if (hasStatus(status) && !removedOnly) {
+            NewsStatus newsStatus = NewsStatus.fromParam(status);
+            if (newsStatus == null) {
+                return Optional.empty();
+            }
+            statusName = newsStatus.name();
         }
+        return Optional.of(entityManager.createNativeQuery(sql)
+                .setParameter("keyword", keyword)
+                .setParameter("includeRemoved", includeRemoved)
+                .setParameter("removedOnly", removedOnly)
+                .setParameter("status", statusName));
+    }
 
-        return newsList.stream()
-                .filter(news -> !news.isRemoved())
-                .filter(news -> {
-                    String newsStatus = calculateStatus(news);
-                    return newsStatus.equalsIgnoreCase(status);
-                })
-                .collect(Collectors.toList());
+    // relevance = คะแนน MATCH, field อื่นจาก FULLTEXT_SORT_COLUMNS (ไม่รู้จัก = ข้าม) และ id desc เป็นตัวตัดสินสุดท้าย
+    private static String fullTextOrderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ");
+        for (Sort.Order order : sort) {
+            String column = RELEVANCE.equals(order.getProperty())
+                    ? FULLTEXT_MATCH
+                    : FULLTEXT_SORT_COLUMNS.get(order.getProperty());
+            if (column != null) {
+                orderBy.add(column + (order.isAscending() && !RELEVANCE.equals(order.getProperty()) ? " asc" : " desc"));
+            }
+        }
+        orderBy.add("n.id desc");
+        return orderBy.toString();
     }
 
-    private String calculateStatus(News news) {
-        int realVotes = news.getRealVotes() != null ? news.getRealVotes() : 0;
-        int fakeVotes = news.getFakeVotes() != null ? news.getFakeVotes() : 0;
+    private static List<Long> ids(List<?> rows) {
+        return rows.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+    }
 
-        if (realVotes > fakeVotes) {
-            return "real";
-        } else if (realVotes < fakeVotes) {
-            return "fake";
-        } else {
-            return "equal";
+    /**
+     * trigram index ให้ผลเหมือน LIKE '%keyword%' บน topic, shortDetail, reporter (ไม่มีคะแนน relevance)
+     */
+    private Slice<NewsSummaryDTO> trigramSearchPage(String keyword, String status, boolean includeRemoved, Pageable pageable) {
+        List<Long> matchingIds = newsTrigramIndex.findNewsIds(keyword);
+        if (matchingIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
         }
+        return findPage(NewsSpecifications.search(null, status, includeRemoved, pageable.getSort())
+                .and(NewsSpecifications.idIn(matchingIds)), pageable);
     }
 
-    private Page<News> createPageFromList(List<News> list, Pageable pageable) {
-        List<News> sortedList = sortNewsList(list, pageable.getSort());
+    private static boolean hasStatus(String status) {
+        return status != null && !status.isBlank() && !status.equalsIgnoreCase("all");
+    }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), sortedList.size());
+    private static boolean isRelevanceSort(Pageable pageable) {
+        return pageable.getSort().getOrderFor(RELEVANCE) != null;
+    }
 
-        List<News> pageContent = start >= sortedList.size() ? List.of() : sortedList.subList(start, end);
+    private List<NewsSummaryDTO> findAllInOrder(List<Long> ids) {
+        Map<Long, NewsSummaryDTO> byId = findSummariesById(ids).stream()
+                .collect(Collectors.toMap(NewsSummaryDTO::getId, news -> news));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-        return new PageImpl<>(pageContent, pageable, sortedList.size());
+    private Slice<NewsSummaryDTO> findPage(String keyword, String status, boolean includeRemoved, Pageable pageable) {
+        return findPage(NewsSpecifications.search(keyword, status, includeRemoved, pageable.getSort()), pageable);
     }
 
+    /**
+     * One SQL statement per page: filters, ORDER BY and LIMIT/OFFSET all run in the database.
+     * One extra row is fetched to know whether a next page exists, so no COUNT(*) is issued here.
+     */
+    private Slice<NewsSummaryDTO> findPage(Specification<News> specification, Pageable pageable) {
+        TypedQuery<NewsSummaryDTO> typedQuery = summaryQuery(specification);
 
-    private List<News> sortNewsList(List<News> list, Sort sort) {
-        if (sort.isUnsorted()) {
-            return list;
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(withPendingVotes(typedQuery::getResultList, pageable.getSort()), pageable, false);
         }
+        // ไม่เรียงใหม่ในหน้า: แถวที่ถูกย้ายออกนอกหน้าจะหายไปทั้งจากหน้านี้และจาก OFFSET ของหน้าถัดไป
+        typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize() + 1);
+        List<NewsSummaryDTO> rows = withPendingVotes(typedQuery::getResultList);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
 
-        List<News> sortedList = new ArrayList<>(list);
+    // news.vote.write-behind: query แล้วรวมโหวตที่ยังไม่ flush โดยไม่มี flush แทรกระหว่างกลาง
+    private List<NewsSummaryDTO> withPendingVotes(Supplier<List<NewsSummaryDTO>> query) {
+        return newsVoteBuffer.read(() -> {
+            List<NewsSummaryDTO> rows = query.get();
+            if (newsVoteBuffer.isEnabled()) {
+                rows.forEach(newsVoteBuffer::merge);
+            }
+            return rows;
+        });
+    }
 
-        for (Sort.Order order : sort) {
-            String property = order.getProperty();
-            boolean isAsc = order.isAscending();
-
-            sortedList.sort((a, b) -> {
-                int comparison = 0;
-
-                switch (property) {
-                    case "dateTime":
-                        // Sort by dateTime
-                        comparison = a.getDateTime().compareTo(b.getDateTime());
-                        break;
-
-                    case "totalVotes":
-                        // Sort by total votes (real + fake)
-                        comparison = Integer.compare(a.getTotalVotes(), b.getTotalVotes());
-                        break;
-
-                    case "commentCount":
-                        // Sort by number of comments
-                        comparison = Integer.compare(a.getCommentCount(), b.getCommentCount());
-                        break;
-
-                    default:
-                        // other field no sort
-                        comparison = 0;
-                }
+    // database เรียงด้วยยอดก่อนรวมโหวตค้าง: เรียงใหม่ในหน่วยความจำ เฉพาะ list เต็มที่ไม่แบ่งหน้า
+    private List<NewsSummaryDTO> withPendingVotes(Supplier<List<NewsSummaryDTO>> query, Sort sort) {
+        List<NewsSummaryDTO> rows = withPendingVotes(query);
+        if (newsVoteBuffer.isEnabled()) {
+            NewsComparators.sort(rows, sort);
+        }
+        return rows;
+    }
 
-                // descending?
-                return isAsc ? comparison : -comparison;
-            });
+    /**
+     * SELECT เฉพาะ column ของการ์ดข่าว (ไม่มี fullDetail และไม่แตะตาราง comment) แล้วสร้าง NewsSummaryDTO ใน query
+     */
+    private TypedQuery<NewsSummaryDTO> summaryQuery(Specification<News> specification) {
+        return summaryQuery(entityManager, specification);
+    }
+
+    private static TypedQuery<NewsSummaryDTO> summaryQuery(EntityManager entityManager, Specification<News> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NewsSummaryDTO> query = cb.createQuery(NewsSummaryDTO.class);
+        Root<News> root = query.from(News.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
         }
+        return entityManager.createQuery(query.select(summary(cb, root)));
+    }
 
-        return sortedList;
+    // ลำดับต้องตรงกับ constructor ของ NewsSummaryDTO
+    private static CompoundSelection<NewsSummaryDTO> summary(CriteriaBuilder cb, Root<News> root) {
+        return cb.construct(NewsSummaryDTO.class,
+                root.get("id"),
+                root.get("topic"),
+                root.get("shortDetail"),
+                root.get("image"),
+                root.get("reporter"),
+                root.get("dateTime"),
+                root.get("realVotes"),
+                root.get("fakeVotes"),
+                root.get("commentCount"),
+                root.get("status"),
+                root.get("removed"));
     }
-}
\ No newline at end of file
+}
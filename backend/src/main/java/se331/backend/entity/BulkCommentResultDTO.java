@@ -0,0 +1,27 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * ผลของ POST /api/comments/bulk: จำนวนที่สร้าง/ถูกปฏิเสธ และผลของแต่ละรายการตามลำดับใน request
+ */
+@Data
+@AllArgsConstructor
+public class BulkCommentResultDTO {
+    private int created;
+    private int rejected;
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private int index; // ลำดับใน request (เริ่มที่ 0)
+        private String status; // created, rejected
+        private Long commentId;
+        private Long newsId;
+        private String error; // เหตุผลที่ถูกปฏิเสธ
+    }
+}
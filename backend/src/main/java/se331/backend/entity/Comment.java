@@ -10,10 +10,14 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// หนึ่งโหวตต่อ user ต่อข่าว (comment เก่า/นำเข้าที่ไม่มี user_id ไม่ถูกจำกัด เพราะ NULL ไม่ชนกันใน unique index)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_comment_news_user", columnNames = {"news_id", "user_id"}))
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // id จองทีละ 1000 จากตาราง id_generator (pooled) ทำให้ INSERT comment จำนวนมากเป็น batch ได้
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "comment_ids")
+    @TableGenerator(name = "comment_ids", table = "id_generator", pkColumnValue = "comment", allocationSize = 1000)
     private Long id;
 
     private String username;
@@ -24,7 +28,13 @@ public class Comment {
     @Enumerated(EnumType.STRING)
     private Vote vote;
 
+    // id ของ User ที่โหวต (เก็บเป็น column ธรรมดา ไม่ต้องโหลด User ใน path โหวต)
+    @Column(name = "user_id")
+    private Integer userId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "news_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private News news;
 }
\ No newline at end of file
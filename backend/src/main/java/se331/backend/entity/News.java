@@ -2,18 +2,29 @@ package se331.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_news_removed_status_date", columnList = "removed, status, dateTime"),
+        @Index(name = "idx_news_removed_total_votes", columnList = "removed, totalVotes"),
+        @Index(name = "idx_news_removed_comment_count", columnList = "removed, commentCount")
+})
+// UPDATE เฉพาะ column ที่เปลี่ยน เพื่อไม่ให้การแก้ไขอื่น (เช่นลบข่าว) เขียนตัวนับโหวตเก่าทับ NewsRepository.addVotes
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class News {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // id จองเป็นช่วงจากตาราง id_generator (pooled) แทน AUTO_INCREMENT เพื่อให้ Hibernate batch INSERT ได้
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "news_ids")
+    @TableGenerator(name = "news_ids", table = "id_generator", pkColumnValue = "news", allocationSize = 100)
     private Long id;
 
     private String topic;
@@ -21,8 +32,12 @@ public class News {
     @Column(length = 4000)
     private String shortDetail;
 
-    @Lob
-    private String fullDetail;
+    // fullDetail อยู่ในตาราง news_body และโหลดแบบ lazy (ดู getFullDetail/setFullDetail)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id")
+    @ToString.Exclude
+    private NewsBody body;
+
     private String image;
     private String reporter;
     private Instant dateTime;
@@ -31,8 +46,12 @@ public class News {
     @Column(nullable = false)
     private boolean removed = false;
 
+    // list endpoints ไม่แตะ comments (ใช้ NewsSummaryDTO) ส่วน path ที่ map หลายข่าวพร้อม comments
+    // จะโหลด comments ของข่าวที่ยังไม่ถูกโหลดทีละ 100 ข่าวใน IN query เดียว แทนทีละข่าว
     @OneToMany(mappedBy = "news", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
+    @ToString.Exclude
     private List<Comment> comments = new ArrayList<>();
 
     @Builder.Default
@@ -41,28 +60,21 @@ public class News {
     @Builder.Default
     private Integer fakeVotes = 0;
 
-    @Transient
-    private Integer totalVotes;
-
-    @Transient
-    private Integer commentCount;
+    // real/fake/equal เก็บเป็น column เพื่อให้กรอง ?status= ผ่าน index ได้
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    @Builder.Default
+    private NewsStatus status = NewsStatus.EQUAL;
 
-    // totalVotes (คำนวณจาก realVotes + fakeVotes)
-    public Integer getTotalVotes() {
-        if (totalVotes == null) {
-            totalVotes = (realVotes != null ? realVotes : 0) +
-                    (fakeVotes != null ? fakeVotes : 0);
-        }
-        return totalVotes;
-    }
+    // totalVotes (realVotes + fakeVotes) และ commentCount เก็บเป็น column
+    // เพื่อให้ sort ตามความนิยมทำใน SQL ได้โดยไม่ต้องแตะตาราง comment
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer totalVotes = 0;
 
-    // commentCount (นับจำนวน comments)
-    public Integer getCommentCount() {
-        if (commentCount == null) {
-            commentCount = comments != null ? comments.size() : 0;
-        }
-        return commentCount;
-    }
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer commentCount = 0;
 
     // Helper method สำหรับเพิ่ม comment
     public void addComment(Comment comment) {
@@ -75,6 +87,8 @@ public class News {
         } else if (comment.getVote() == Vote.FAKE) {
             fakeVotes++;
         }
+        commentCount = (commentCount != null ? commentCount : 0) + 1;
+        refreshVoteTotals();
     }
 
     // Helper method สำหรับลบ comment พร้อมปรับยอดโหวต
@@ -85,7 +99,73 @@ public class News {
             } else if (comment.getVote() == Vote.FAKE && fakeVotes > 0) {
                 fakeVotes--;
             }
+            if (commentCount != null && commentCount > 0) {
+                commentCount--;
+            }
+            refreshVoteTotals();
             comment.setNews(null);
         }
     }
+
+    public String getFullDetail() {
+        return body != null ? body.getFullDetail() : null;
+    }
+
+    public void setFullDetail(String fullDetail) {
+        if (body == null) {
+            body = new NewsBody(fullDetail);
+        } else {
+            body.setFullDetail(fullDetail);
+        }
+    }
+
+    public void setRealVotes(Integer realVotes) {
+        this.realVotes = realVotes;
+        refreshVoteTotals();
+    }
+
+    public void setFakeVotes(Integer fakeVotes) {
+        this.fakeVotes = fakeVotes;
+        refreshVoteTotals();
+    }
+
+    // คำนวณ totalVotes และ status ใหม่จากยอดโหวต (builder ไม่ผ่าน setter จึงเรียกซ้ำก่อน update)
+    @PreUpdate
+    public void refreshVoteTotals() {
+        totalVotes = (realVotes != null ? realVotes : 0) + (fakeVotes != null ? fakeVotes : 0);
+        status = NewsStatus.of(realVotes, fakeVotes);
+    }
+
+    // ข่าวใหม่: comments ยังเป็น list ธรรมดาในหน่วยความจำ นับได้โดยไม่ต้อง query
+    @PrePersist
+    public void prePersist() {
+        commentCount = comments != null ? comments.size() : 0;
+        refreshVoteTotals();
+    }
+
+    // equals/hashCode ใช้แค่ id เพื่อไม่ให้ hash ไล่ไปทั้ง comments (Lombok @Data จะไม่สร้างทับ)
+    // hashCode คงที่ต่อ class: ข่าวที่ใส่ HashSet/HashMap ก่อน save (id ยังเป็น null) ยังหาเจอหลังได้ id
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof News other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return News.class.hashCode(); // ไม่ใช้ getClass() เพราะ Hibernate proxy เป็น subclass
+    }
+
+    // ให้ News.builder().fullDetail(...) ยังใช้ได้เหมือนเดิม (Lombok เติม method อื่นเข้ามาให้)
+    public static class NewsBuilder {
+        public NewsBuilder fullDetail(String fullDetail) {
+            this.body = new NewsBody(fullDetail);
+            return this;
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package se331.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+
+/**
+ * เนื้อหาเต็มของข่าว (fullDetail) แยกตารางจาก news เพื่อให้ list, vote และ delete ไม่ต้องอ่าน LOB
+ * News อ้างถึงแบบ LAZY จึงถูกโหลดเฉพาะตอนเรียก News.getFullDetail() (หน้า detail)
+ */
+@Entity
+@Table(name = "news_body")
+@BatchSize(size = 100)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsBody {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "news_body_ids")
+    @TableGenerator(name = "news_body_ids", table = "id_generator", pkColumnValue = "news_body", allocationSize = 100)
+    private Long id;
+
+    @Lob
+    @Column(name = "full_detail")
+    private String fullDetail;
+
+    public NewsBody(String fullDetail) {
+        this.fullDetail = fullDetail;
+    }
+}
@@ -0,0 +1,17 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * ผลลัพธ์ของ keyset pagination: ข่าวในหน้านี้ + cursor ของหน้าถัดไป (null = หน้าสุดท้าย)
+ */
+@Data
+@AllArgsConstructor
+public class NewsCursorPage {
+    private List<NewsSummaryDTO> content;
+    private Long totalElements; // null เมื่อ client ขอไม่นับ (_count=false)
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * จำนวนข่าวต่อ status (real, fake, equal และ removed สำหรับ admin) และ reporter ที่มีข่าวมากที่สุด
+ * ของ keyword เดียวกัน สำหรับแสดงตัวเลขบนแต่ละ tab
+ */
+@Data
+@AllArgsConstructor
+public class NewsFacetsDTO {
+    private long total;
+    private Map<String, Long> statuses;
+    private List<ReporterCount> reporters;
+
+    @Data
+    @AllArgsConstructor
+    public static class ReporterCount {
+        private String reporter;
+        private long count;
+    }
+}
@@ -0,0 +1,33 @@
+package se331.backend.entity;
+
+public enum NewsStatus {
+    REAL,
+    FAKE,
+    EQUAL;
+
+    public static NewsStatus of(Integer realVotes, Integer fakeVotes) {
+        int real = realVotes != null ? realVotes : 0;
+        int fake = fakeVotes != null ? fakeVotes : 0;
+
+        if (real > fake) {
+            return REAL;
+        } else if (real < fake) {
+            return FAKE;
+        } else {
+            return EQUAL;
+        }
+    }
+
+    // แปลงค่า status จาก query parameter (real/fake/equal) ถ้าไม่รู้จักคืน null
+    public static NewsStatus fromParam(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (NewsStatus status : values()) {
+            if (status.name().equalsIgnoreCase(value.trim())) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,16 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * คำแนะนำของช่องค้นหา (autocomplete) จากคำใน topic หรือชื่อ reporter
+ */
+@Data
+@AllArgsConstructor
+public class NewsSuggestionDTO {
+    private String text;
+    private String type; // topic, reporter
+    private long totalVotes; // จำนวนโหวตรวมของข่าวที่มีคำนี้
+    private int newsCount;
+}
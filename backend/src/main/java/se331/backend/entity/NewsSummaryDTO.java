@@ -0,0 +1,53 @@
+package se331.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ข้อมูลข่าวสำหรับหน้า list / ผลค้นหา (การ์ดข่าว) ไม่มี fullDetail และมีแค่ comment ล่าสุดไม่กี่รายการ
+ * ถูกสร้างตรงจาก query (JPA constructor expression) จึงอ่านเฉพาะ column ที่ใช้
+ * รายละเอียดเต็มดูที่ NewsDTO (/api/news/{id}) comment ที่เหลือดูที่ /api/comments/news/{newsId}
+ */
+@Data
+@NoArgsConstructor
+public class NewsSummaryDTO {
+    private Long id;
+    private String topic;
+    private String shortDetail;
+    private String image;
+    private String reporter;
+    private String dateTime;
+    private VoteSummaryDTO voteSummary;
+    private int totalVotes;
+    // total_votes ใน database ก่อนรวมโหวตค้าง (news.vote.write-behind) cursor ต้อง seek ด้วยค่านี้ ไม่ใช่ totalVotes
+    @JsonIgnore
+    private int storedTotalVotes;
+    private int commentCount; // จำนวน comment ทั้งหมดจริง (ไม่ใช่แค่ latestComments)
+    private List<CommentDTO> latestComments = List.of();
+    private String status;
+    private boolean removed;
+
+    // ลำดับ argument ต้องตรงกับ NewsDaoImpl.summary()
+    public NewsSummaryDTO(Long id, String topic, String shortDetail, String image, String reporter,
+                          Instant dateTime, Integer realVotes, Integer fakeVotes, Integer commentCount,
+                          NewsStatus status, Boolean removed) {
+        int real = realVotes != null ? realVotes : 0;
+        int fake = fakeVotes != null ? fakeVotes : 0;
+        this.id = id;
+        this.topic = topic;
+        this.shortDetail = shortDetail;
+        this.image = image;
+        this.reporter = reporter;
+        this.dateTime = dateTime != null ? dateTime.toString() : null;
+        this.voteSummary = new VoteSummaryDTO(real, fake);
+        this.totalVotes = real + fake;
+        this.storedTotalVotes = totalVotes;
+        this.commentCount = commentCount != null ? commentCount : 0;
+        this.status = status != null ? status.name().toLowerCase() : null;
+        this.removed = Boolean.TRUE.equals(removed);
+    }
+}
@@ -0,0 +1,14 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * ผลของการ comment + vote: comment ที่เพิ่งสร้าง และยอดโหวตของข่าวหลังนับโหวตนี้แล้ว
+ */
+@Data
+@AllArgsConstructor
+public class VoteResultDTO {
+    private CommentDTO comment;
+    private VoteSummaryDTO voteSummary;
+}
@@ -0,0 +1,25 @@
+package se331.backend.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * จำนวนโหวต real/fake ของข่าวต่อนาที (GET /api/news/{id}/vote-timeline) เรียงจากนาทีเก่าไปนาทีปัจจุบัน
+ */
+@Data
+@AllArgsConstructor
+public class VoteTimelineDTO {
+    private Long newsId;
+    private int bucketSeconds;
+    private List<Point> points;
+
+    @Data
+    @AllArgsConstructor
+    public static class Point {
+        private String minute; // เวลาเริ่มของนาที (ISO-8601 UTC)
+        private int real;
+        private int fake;
+    }
+}
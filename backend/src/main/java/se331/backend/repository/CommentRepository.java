@@ -3,8 +3,35 @@ package se331.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import se331.backend.entity.Comment;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByNewsId(Long newsId, Pageable pageable);
+    Page<Comment> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
+    Page<Comment> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    // comment ล่าสุด perNews รายการของแต่ละข่าวใน query เดียว (MySQL 8 window function)
+    @Query(value = """
+            select id, username, text, image, time, vote, user_id, news_id from (
+                select c.*, row_number() over (partition by c.news_id order by c.time desc, c.id desc) as rn
+                from comment c
+                where c.news_id in (:newsIds)
+            ) latest
+            where latest.rn <= :perNews
+            order by news_id, time desc, id desc
+            """, nativeQuery = true)
+    List<Comment> findLatestByNewsIds(@Param("newsIds") Collection<Long> newsIds, @Param("perNews") int perNews);
+
+    // สำหรับสร้าง trigram index: [id, username]
+    @Query("select c.id, c.username from Comment c")
+    List<Object[]> findAllUsernames();
+
+    // สำหรับสร้าง NewsVoteRegistry: [newsId, userId]
+    @Query("select c.news.id, c.userId from Comment c where c.userId is not null")
+    List<Object[]> findAllVoters();
 }
\ No newline at end of file
@@ -3,20 +3,45 @@ package se331.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface NewsRepository extends JpaRepository<News, Long> {
+public interface NewsRepository extends JpaRepository<News, Long>, JpaSpecificationExecutor<News> {
 
     // users
-    Page<News> findByRemovedFalseAndTopicContainingIgnoreCase(String topic, Pageable pageable);
-    Page<News> findByRemovedFalseAndShortDetailContainingIgnoreCase(String shortDetail, Pageable pageable);
-    Page<News> findByRemovedFalseAndReporterContainingIgnoreCase(String reporter, Pageable pageable);
     Page<News> findByRemovedFalse(Pageable pageable);
 
-    // admin
-    Page<News> findByTopicContainingIgnoreCase(String topic, Pageable pageable);
-    Page<News> findByShortDetailContainingIgnoreCase(String shortDetail, Pageable pageable);
-    Page<News> findByReporterContainingIgnoreCase(String reporter, Pageable pageable);
+    // keyword search (topic OR shortDetail OR reporter) is a single query, see NewsSpecifications
+
+    @Query("select n.id from News n where n.id in :ids and n.removed = false and n.status = :status")
+    List<Long> findVisibleIdsByStatus(@Param("ids") Collection<Long> ids, @Param("status") NewsStatus status);
+
+    // โหวต/ลบโหวต: ปรับตัวนับทั้งหมดใน UPDATE เดียว (row lock ของ database กันการนับหาย) โดยไม่โหลดข่าวและ comments
+    // status/totalVotes ต้องมาก่อน realVotes/fakeVotes เพราะ MySQL ใช้ค่าที่ set ไปแล้วใน assignment ถัดไป
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update News n set
+                n.status = case
+                    when n.realVotes + :real > n.fakeVotes + :fake then se331.backend.entity.NewsStatus.REAL
+                    when n.realVotes + :real < n.fakeVotes + :fake then se331.backend.entity.NewsStatus.FAKE
+                    else se331.backend.entity.NewsStatus.EQUAL end,
+                n.totalVotes = n.realVotes + n.fakeVotes + :real + :fake,
+                n.realVotes = n.realVotes + :real,
+                n.fakeVotes = n.fakeVotes + :fake,
+                n.commentCount = n.commentCount + :comments
+            where n.id = :id
+            """)
+    int addVotes(@Param("id") Long id,
+                 @Param("real") int real,
+                 @Param("fake") int fake,
+                 @Param("comments") int comments);
 }
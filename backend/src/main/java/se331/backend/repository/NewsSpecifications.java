@@ -0,0 +1,142 @@
+package se331.backend.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+import se331.backend.util.NewsCursor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * สร้างเงื่อนไข WHERE / ORDER BY ของการค้นหาข่าวให้ database ทำทั้งหมดใน query เดียว
+ * (keyword, status, removed และ sort) แทนการโหลดทั้งตารางมากรองใน Java
+ */
+public final class NewsSpecifications {
+
+    private NewsSpecifications() {
+    }
+
+    /**
+     * @param keyword        ค้นหาใน topic, shortDetail, reporter (null/blank = ไม่กรอง)
+     * @param status         real, fake, equal, removed, all (null/blank = ไม่กรอง)
+     * @param includeRemoved true สำหรับ admin (เห็นข่าวที่ถูกลบด้วย)
+     * @param sort           เรียงตาม dateTime, totalVotes, commentCount
+     */
+    public static Specification<News> search(String keyword, String status, boolean includeRemoved, Sort sort) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (!includeRemoved) {
+                predicates.add(cb.isFalse(root.get("removed")));
+            }
+            if (keyword != null && !keyword.isBlank()) {
+                predicates.add(keywordPredicate(root, cb, keyword));
+            }
+            if (status != null && !status.isBlank() && !status.equalsIgnoreCase("all")) {
+                predicates.add(statusPredicate(root, cb, status));
+            }
+
+            // count query ของ Spring Data จะล้าง orderBy ทิ้งเอง
+            if (query != null && sort != null && sort.isSorted()) {
+                query.orderBy(toOrders(root, cb, sort));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * keyset (seek) predicate: ข่าวที่อยู่หลัง cursor ตามลำดับ sort เดียวกับ toOrders (id desc เป็นตัวตัดสิน)
+     */
+    public static Specification<News> after(NewsCursor cursor) {
+        return (root, query, cb) -> {
+            Predicate beyond;
+            Predicate same;
+            if (cursor.isDateTime()) {
+                Expression<Instant> dateTime = root.get("dateTime");
+                Instant value = cursor.getDateTimeValue();
+                beyond = cursor.isAscending() ? cb.greaterThan(dateTime, value) : cb.lessThan(dateTime, value);
+                same = cb.equal(dateTime, value);
+            } else {
+                Expression<Integer> totalVotes = root.get("totalVotes");
+                Integer value = cursor.getTotalVotesValue();
+                beyond = cursor.isAscending() ? cb.greaterThan(totalVotes, value) : cb.lessThan(totalVotes, value);
+                same = cb.equal(totalVotes, value);
+            }
+            return cb.or(beyond, cb.and(same, cb.lessThan(root.<Long>get("id"), cursor.getId())));
+        };
+    }
+
+    public static Specification<News> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private static Predicate keywordPredicate(Root<News> root, CriteriaBuilder cb, String keyword) {
+        String pattern = "%" + escapeLike(keyword.toLowerCase()) + "%";
+        return cb.or(
+                cb.like(cb.lower(root.get("topic")), pattern, '\\'),
+                cb.like(cb.lower(root.get("shortDetail")), pattern, '\\'),
+                cb.like(cb.lower(root.get("reporter")), pattern, '\\')
+        );
+    }
+
+    private static Predicate statusPredicate(Root<News> root, CriteriaBuilder cb, String status) {
+        if (status.equalsIgnoreCase("removed")) {
+            return cb.isTrue(root.get("removed"));
+        }
+
+        NewsStatus newsStatus = NewsStatus.fromParam(status);
+        if (newsStatus == null) {
+            // status อื่นๆ ไม่ตรงกับข่าวใดเลย
+            return cb.disjunction();
+        }
+        return cb.and(
+                cb.isFalse(root.get("removed")),
+                cb.equal(root.get("status"), newsStatus));
+    }
+
+    private static List<Order> toOrders(Root<News> root, CriteriaBuilder cb, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            Expression<?> expression;
+            switch (order.getProperty()) {
+                case "dateTime":
+                    expression = root.get("dateTime");
+                    break;
+                case "totalVotes":
+                    expression = root.get("totalVotes");
+                    break;
+                case "commentCount":
+                    expression = root.get("commentCount");
+                    break;
+                default:
+                    // other field no sort
+                    continue;
+            }
+            orders.add(order.isAscending() ? cb.asc(expression) : cb.desc(expression));
+        }
+
+        // id เป็นตัวตัดสินสุดท้าย เพื่อให้แต่ละหน้าไม่ซ้ำ/ไม่ตกหล่น
+        if (!orders.isEmpty()) {
+            orders.add(cb.desc(root.get("id")));
+        }
+        return orders;
+    }
+
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
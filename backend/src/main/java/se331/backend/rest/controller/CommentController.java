@@ -7,17 +7,19 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import se331.backend.entity.BulkCommentResultDTO;
 import se331.backend.entity.CommentDTO;
 import se331.backend.entity.CreateCommentRequest;
 import se331.backend.entity.Comment;
 import se331.backend.entity.News;
-import se331.backend.entity.Vote;
+import se331.backend.entity.VoteResultDTO;
 import se331.backend.repository.NewsRepository;
 import se331.backend.service.CommentService;
+import se331.backend.service.NewsVoteBuffer;
 
-import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -30,6 +32,9 @@ public class CommentController {
     @Autowired
     private NewsRepository newsRepository;
 
+    @Autowired
+    private NewsVoteBuffer newsVoteBuffer;
+
     /**
      * ดึงคอมเมนต์ทั้งหมดของข่าว (มี Pagination)
      */
@@ -49,50 +54,36 @@ public class CommentController {
     }
 
     /**
-     * สร้างคอมเมนต์ใหม่
+     * ค้นหาคอมเมนต์จากชื่อผู้คอมเมนต์ (substring, ไม่สนตัวพิมพ์)
      */
-    @PostMapping
-    public ResponseEntity<CommentDTO> createComment(@RequestBody CreateCommentRequest request) {
-
-        // Validation
-        if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
-            return ResponseEntity.badRequest().build();
-        }
-        if (request.getVote() == null || request.getNewsId() == null) {
-            return ResponseEntity.badRequest().build();
-        }
+    @GetMapping("/search")
+    public ResponseEntity<Page<CommentDTO>> searchByUsername(
+            @RequestParam String username,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
 
-        // ตรวจสอบว่าข่าวมีอยู่จริง
-        News news = newsRepository.findById(request.getNewsId())
-                .orElseThrow(() -> new RuntimeException("News not found with id: " + request.getNewsId()));
+        Page<Comment> comments = commentService.searchByUsername(
+                username,
+                PageRequest.of(page, size, Sort.by("time").descending())
+        );
+        return ResponseEntity.ok(comments.map(this::convertToDTO));
+    }
 
-        // แปลง String vote เป็น Enum
-        Vote voteEnum;
-        try {
-            voteEnum = Vote.valueOf(request.getVote().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    /**
+     * สร้างคอมเมนต์ใหม่ (พร้อมโหวต) คืน comment ที่สร้าง และยอดโหวตของข่าวหลังนับแล้ว
+     */
+    @PostMapping
+    public ResponseEntity<VoteResultDTO> createComment(@RequestBody CreateCommentRequest request) {
+        VoteResultDTO result = commentService.createComment(request.getNewsId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
 
-        // สร้าง Comment Entity
-        Comment comment = Comment.builder()
-                .username(request.getUsername())
-                .text(request.getText())
-                .image(request.getImage())
-                .vote(voteEnum)
-                .time(Instant.now())
-                .news(news)
-                .build();
-
-        // บันทึก comment
-        Comment savedComment = commentService.save(comment);
-
-        // เพิ่ม comment ไปยัง news และบันทึก
-        news.addComment(savedComment);
-        newsRepository.save(news);
-
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(convertToDTO(savedComment));
+    /**
+     * นำเข้าคอมเมนต์ (พร้อมโหวต) เป็นชุด เช่นจาก feed ของ partner ผลของแต่ละรายการอยู่ใน items ตามลำดับเดิม
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCommentResultDTO> createComments(@RequestBody List<CreateCommentRequest> requests) {
+        return ResponseEntity.ok(commentService.createComments(requests));
     }
 
     /**
@@ -109,14 +100,18 @@ public class CommentController {
      */
     @GetMapping("/news/{newsId}/summary")
     public ResponseEntity<?> getCommentSummary(@PathVariable Long newsId) {
-        News news = newsRepository.findById(newsId)
-                .orElseThrow(() -> new RuntimeException("News not found"));
-
-        return ResponseEntity.ok(new Object() {
-            public final Long newsId = news.getId();
-            public final int real = news.getRealVotes(); // real
-            public final int fake = news.getFakeVotes(); // fake
-            public final int totalComments = news.getComments().size();
+        // รวมโหวตที่ยังไม่ flush (news.vote.write-behind) ภายใต้ read lock เดียวกับการอ่านแถวข่าว
+        return newsVoteBuffer.read(() -> {
+            News news = newsRepository.findById(newsId)
+                    .orElseThrow(() -> new RuntimeException("News not found"));
+            NewsVoteBuffer.Delta pending = newsVoteBuffer.isEnabled() ? newsVoteBuffer.pending(newsId) : NewsVoteBuffer.Delta.NONE;
+
+            return ResponseEntity.ok(new Object() {
+                public final Long newsId = news.getId();
+                public final int real = news.getRealVotes() + (int) pending.real(); // real
+                public final int fake = news.getFakeVotes() + (int) pending.fake(); // fake
+                public final int totalComments = news.getCommentCount() + (int) pending.comments();
+            });
         });
     }
 
@@ -4,14 +4,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import se331.backend.entity.CreateCommentRequest;
 import se331.backend.entity.CreateNewsRequest;
+import se331.backend.entity.NewsCursorPage;
 import se331.backend.entity.NewsDTO;
+import se331.backend.entity.NewsFacetsDTO;
+import se331.backend.entity.NewsSuggestionDTO;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.VoteResultDTO;
+import se331.backend.entity.VoteTimelineDTO;
+import se331.backend.service.CommentService;
+import se331.backend.service.NewsSearchCache;
 import se331.backend.service.NewsService;
+import se331.backend.util.NewsCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 
 import java.util.List;
@@ -24,36 +36,74 @@ import java.util.List;
 @CrossOrigin(origins = "*") // อนุญาตให้ Frontend จาก domain อื่นเรียกใช้ได้ (เช่น localhost:5173)
 public class NewsController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired // ให้ Spring inject NewsService เข้ามาอัตโนมัติ (Dependency Injection)
     private NewsService newsService;
 
+    @Autowired
+    private CommentService commentService;
+
     /**
      * API: GET /api/news
      * ดึงข่าวทั้งหมด (ไม่รวมข่าวที่ถูกลบ สำหรับ normal user)
      *
-     * @return ResponseEntity<List<NewsDTO>> - รายการข่าวทั้งหมดพร้อม HTTP status 200 OK
+     * @param sortField - (ไม่บังคับ) dateTime, totalVotes, commentCount
+     * @return ResponseEntity<List<NewsSummaryDTO>> - รายการข่าวทั้งหมดพร้อม HTTP status 200 OK
      */
     @GetMapping // รับ HTTP GET request ที่ /api/news
-    public ResponseEntity<List<NewsDTO>> getAllNews() {
+    public ResponseEntity<List<NewsSummaryDTO>> getAllNews(
+            @RequestParam(value = "_sort", required = false) String sortField,
+            @RequestParam(value = "_order", required = false) String sortOrder) {
         // เรียก service เพื่อดึงข่าวทั้งหมด
-        List<NewsDTO> newsList = newsService.getAllNews();
+        List<NewsSummaryDTO> newsList = newsService.getAllNews(toSort(sortField, sortOrder));
 
         // ส่งข้อมูลกลับพร้อม HTTP status 200 OK
         return ResponseEntity.ok(newsList);
     }
 
+    /**
+     * API: GET /api/news (Accept: application/x-ndjson)
+     * ส่งข่าวทีละบรรทัดระหว่างอ่านจาก database หน่วยความจำไม่โตตามจำนวนข่าว
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllNews(
+            @RequestParam(value = "_sort", required = false) String sortField,
+            @RequestParam(value = "_order", required = false) String sortOrder) {
+        Sort sort = toSort(sortField, sortOrder);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> newsService.streamAllNews(sort, out));
+    }
+
     /**
      * API: GET /api/news/removed
      * ดึงข่าวที่ถูกลบแล้ว (เฉพาะ Admin เท่านั้น)
      *
-     * @return ResponseEntity<List<NewsDTO>> - รายการข่าวที่ถูกลบ
+     * @param sortField - (ไม่บังคับ) dateTime, totalVotes, commentCount
+     * @return ResponseEntity<List<NewsSummaryDTO>> - รายการข่าวที่ถูกลบ
      */
     @GetMapping("/removed") // รับ GET request ที่ /api/news/removed
-    public ResponseEntity<List<NewsDTO>> getRemovedNews() {
-        List<NewsDTO> removedNews = newsService.getRemovedNews();
+    public ResponseEntity<List<NewsSummaryDTO>> getRemovedNews(
+            @RequestParam(value = "_sort", required = false) String sortField,
+            @RequestParam(value = "_order", required = false) String sortOrder) {
+        List<NewsSummaryDTO> removedNews = newsService.getRemovedNews(toSort(sortField, sortOrder));
         return ResponseEntity.ok(removedNews);
     }
 
+    /**
+     * API: GET /api/news/removed (Accept: application/x-ndjson)
+     */
+    @GetMapping(value = "/removed", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamRemovedNews(
+            @RequestParam(value = "_sort", required = false) String sortField,
+            @RequestParam(value = "_order", required = false) String sortOrder) {
+        Sort sort = toSort(sortField, sortOrder);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> newsService.streamRemovedNews(sort, out));
+    }
+
     /**
      * API: GET /api/news/{id}
      * ดึงข้อมูลข่าวตาม ID
@@ -90,15 +140,25 @@ public class NewsController {
      * เพิ่ม comment (และ vote) ให้กับข่าว
      *
      * @param request - ข้อมูล comment ที่จะเพิ่ม (JSON จาก request body)
-     * @return ResponseEntity<NewsDTO> - ข้อมูลข่าวที่อัปเดตแล้ว (มี comment ใหม่)
+     * @return ResponseEntity<VoteResultDTO> - comment ที่สร้าง และยอดโหวตของข่าวหลังนับแล้ว (ใช้ service เดียวกับ POST /api/comments)
      */
     @PostMapping("/{id}/comments")
-    public ResponseEntity<NewsDTO> addComment(
+    public ResponseEntity<VoteResultDTO> addComment(
             @PathVariable("id") Long newsId, // ดึง id จาก URL path
             @RequestBody CreateCommentRequest request) { // ดึงข้อมูล comment จาก request body
 
-        NewsDTO updatedNews = newsService.addCommentToNews(newsId, request);
-        return ResponseEntity.ok(updatedNews);
+        VoteResultDTO result = commentService.createComment(newsId, request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * API: GET /api/news/{id}/vote-timeline
+     * จำนวนโหวต real/fake ต่อนาทีของข่าวในช่วงล่าสุด (news.vote.timeline.minutes) สำหรับกราฟ
+     * ตอบจากหน่วยความจำ ข่าวที่ไม่มีโหวตในช่วงนี้ได้ศูนย์ทุกนาที
+     */
+    @GetMapping("/{id}/vote-timeline")
+    public ResponseEntity<VoteTimelineDTO> getVoteTimeline(@PathVariable Long id) {
+        return ResponseEntity.ok(newsService.getVoteTimeline(id));
     }
 
     /**
@@ -131,6 +191,43 @@ public class NewsController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * API: GET /api/news/search/facets
+     * จำนวนข่าวของแต่ละ tab (real, fake, equal, removed) และ reporter ที่มีข่าวมากที่สุด สำหรับ keyword เดียวกัน
+     *
+     * @param title - keyword เดียวกับ /api/news/search
+     * @param reporterLimit - จำนวน reporter สูงสุดที่ส่งกลับ (default = 5)
+     */
+    @GetMapping("/search/facets")
+    public ResponseEntity<NewsFacetsDTO> getFacets(
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "_reporters", defaultValue = "5") int reporterLimit) {
+        return ResponseEntity.ok(newsService.getFacets(title, reporterLimit));
+    }
+
+    /**
+     * API: GET /api/news/suggest?q=
+     * คำแนะนำสำหรับช่องค้นหา (พิมพ์ทีละตัวอักษร) เรียงตามจำนวนโหวตรวม
+     *
+     * @param q - prefix ที่ผู้ใช้พิมพ์
+     * @param limit - จำนวนคำแนะนำสูงสุด (ไม่เกิน 10)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<NewsSuggestionDTO>> suggest(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "_limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(newsService.suggest(q, limit));
+    }
+
+    /**
+     * API: GET /api/news/search/cache-stats
+     * hit / miss / eviction ของ search result cache (admin เท่านั้น)
+     */
+    @GetMapping("/search/cache-stats")
+    public ResponseEntity<NewsSearchCache.Stats> getSearchCacheStats() {
+        return ResponseEntity.ok(newsService.getSearchCacheStats());
+    }
+
     /**
      * API: GET /api/news/search
      * ค้นหาและกรองข่าวแบบมี Pagination
@@ -139,7 +236,10 @@ public class NewsController {
      * @param status - สถานะที่ต้องการกรอง (real, fake, equal, removed)
      * @param perPage - จำนวนข่าวต่อหน้า (default = 10)
      * @param page - หน้าที่ต้องการดึง เริ่มจาก 1 (default = 1)
-     * @return ResponseEntity<?> - รายการข่าวพร้อม header x-total-count
+     * @param sortField - dateTime (default), totalVotes, commentCount หรือ relevance (เมื่อ news.search.mode = index หรือ fulltext)
+     * @param cursor - keyset cursor จาก header x-next-cursor (ใช้แทน _page ได้เมื่อ sort ด้วย dateTime/totalVotes)
+     * @param withCount - false = ไม่ส่ง x-total-count (ไม่ต้องนับ)
+     * @return ResponseEntity<?> - รายการข่าวพร้อม header x-total-count และ x-next-cursor (ถ้ามีหน้าถัดไป)
      */
     @GetMapping("/search") // รับ GET request ที่ /api/news/search
     public ResponseEntity<?> getNews(
@@ -157,7 +257,13 @@ public class NewsController {
         // หมายเลขหน้าที่ต้องการ (_page ตาม JSON API convention)
 
             @RequestParam(value = "_sort", required = false) String sortField,
-            @RequestParam(value = "_order", required = false) String sortOrder) {
+            @RequestParam(value = "_order", required = false) String sortOrder,
+
+            @RequestParam(value = "cursor", required = false) String cursor,
+            // cursor (keyset pagination) จาก header x-next-cursor ของหน้าก่อนหน้า ส่งค่าว่างเพื่อเริ่มหน้าแรก
+
+            @RequestParam(value = "_count", required = false, defaultValue = "true") boolean withCount) {
+        // _count=false ไม่ต้องนับจำนวนทั้งหมด (ไม่มี x-total-count) สำหรับ infinite scroll
 
         // กำหนดค่า default ถ้าไม่มีการส่งมา
         perPage = perPage == null ? 10 : perPage; // ถ้าไม่ส่ง _limit มา ให้ใช้ 10
@@ -171,26 +277,61 @@ public class NewsController {
                 : Sort.Direction.DESC;
         Sort sort = Sort.by(direction, sortField);
 
+        if (cursor != null) {
+            // โหมด cursor: ไม่ใช้ _page, ต้นทุนเท่ากันทุกหน้าไม่ว่าจะเลื่อนลึกแค่ไหน
+            NewsCursorPage cursorPage = newsService.getNewsAfter(title, status, sort, cursor, perPage, withCount);
+
+            HttpHeaders cursorHeader = new HttpHeaders();
+            if (cursorPage.getTotalElements() != null) {
+                cursorHeader.set("x-total-count", String.valueOf(cursorPage.getTotalElements()));
+            }
+            if (cursorPage.getNextCursor() != null) {
+                cursorHeader.set("x-next-cursor", cursorPage.getNextCursor());
+            }
+            return new ResponseEntity<>(cursorPage.getContent(), cursorHeader, HttpStatus.OK);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, perPage, sort);
 
         // เรียก service เพื่อค้นหาและกรองข่าว
         // PageRequest.of(page - 1, perPage) = สร้าง pagination object
         // - page - 1 เพราะ Spring เริ่มนับหน้าจาก 0 (แต่ Frontend ส่งมาเริ่มที่ 1)
         // - perPage = จำนวนข่าวต่อหน้า
-        Page<NewsDTO> pageOutput = newsService.getNews(title, status, pageable);
+        Slice<NewsSummaryDTO> pageOutput = withCount
+                ? newsService.getNews(title, status, pageable)
+                : newsService.getNewsSlice(title, status, pageable);
 
         // สร้าง HTTP Headers เพื่อส่งข้อมูลเพิ่มเติม
         HttpHeaders responseHeader = new HttpHeaders();
 
         // เพิ่ม header x-total-count เพื่อบอก Frontend ว่ามีข่าวทั้งหมดกี่รายการ
         // (ใช้สำหรับคำนวณจำนวนหน้าทั้งหมด)
-        responseHeader.set("x-total-count", String.valueOf(pageOutput.getTotalElements()));
-        // getTotalElements() = จำนวนข่าวทั้งหมดที่ตรงกับเงื่อนไข
+        if (pageOutput instanceof Page<NewsSummaryDTO> counted) {
+            responseHeader.set("x-total-count", String.valueOf(counted.getTotalElements()));
+            // getTotalElements() = จำนวนข่าวทั้งหมดที่ตรงกับเงื่อนไข
+        }
+
+        // cursor สำหรับหน้าถัดไป ให้ client เปลี่ยนไปใช้ keyset pagination ต่อได้
+        if (pageOutput.hasNext() && !pageOutput.getContent().isEmpty()) {
+            NewsCursor next = NewsCursor.after(sort, pageOutput.getContent().get(pageOutput.getContent().size() - 1));
+            if (next != null) {
+                responseHeader.set("x-next-cursor", next.encode());
+            }
+        }
 
         // ส่งข้อมูลกลับ:
-        // - pageOutput.getContent() = รายการข่าวในหน้านี้ (List<NewsDTO>)
+        // - pageOutput.getContent() = รายการข่าวในหน้านี้ (List<NewsSummaryDTO>)
         // - responseHeader = HTTP headers (มี x-total-count)
         // - HttpStatus.OK = HTTP 200 (สำเร็จ)
         return new ResponseEntity<>(pageOutput.getContent(), responseHeader, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    // _sort หลาย field คั่นด้วย comma เช่น _sort=totalVotes,dateTime (ไม่ส่ง = ไม่เรียง)
+    private static Sort toSort(String sortField, String sortOrder) {
+        if (sortField == null || sortField.isBlank()) {
+            return Sort.unsorted();
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, sortField.split(","));
+    }
+}
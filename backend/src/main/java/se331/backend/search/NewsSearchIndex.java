@@ -0,0 +1,323 @@
+package se331.backend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se331.backend.entity.News;
+import se331.backend.repository.NewsRepository;
+
+import java.text.BreakIterator;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index ของข่าวในหน่วยความจำ (topic, shortDetail, reporter และ fullDetail ถ้าเปิดไว้)
+ * จัดอันดับผลลัพธ์ด้วย BM25 ใช้เมื่อ news.search.mode = index
+ *
+ * postings เก็บเป็น int[] (doc, tf) เรียงตามลำดับ doc ที่ถูกเพิ่ม ข่าวที่ถูก index ซ้ำจะถูก
+ * ทำเครื่องหมาย deleted แล้วเพิ่มเป็น doc ใหม่ ทั้งหมดถูกสร้างใหม่จาก database ตอน start
+ */
+@Slf4j
+@Component
+public class NewsSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // น้ำหนักของแต่ละ field (นับเป็น term frequency)
+    private static final int TOPIC_WEIGHT = 3;
+    private static final int REPORTER_WEIGHT = 2;
+    private static final int DETAIL_WEIGHT = 1;
+
+    private static final Locale TOKEN_LOCALE = Locale.forLanguageTag("th");
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Value("${news.search.mode:like}")
+    private String searchMode;
+
+    @Value("${news.search.index-full-detail:false}")
+    private boolean indexFullDetail;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByNewsId = new HashMap<>();
+    private long[] newsIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private final BitSet removed = new BitSet();
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveDocCount;
+    private long totalLength;
+
+    public boolean isEnabled() {
+        return NewsSearchMode.from(searchMode) == NewsSearchMode.INDEX;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * สร้าง index ใหม่ทั้งหมดจากตาราง news
+     */
+    public void rebuild() {
+        List<News> allNews = newsRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docByNewsId.clear();
+            removed.clear();
+            deleted.clear();
+            docCount = 0;
+            liveDocCount = 0;
+            totalLength = 0;
+            for (News news : allNews) {
+                addDocument(news);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("News search index rebuilt: {} documents, {} terms", allNews.size(), postings.size());
+    }
+
+    /**
+     * เพิ่มข่าวเข้า index (ถ้ามีอยู่แล้วจะแทนที่ของเดิม) หลัง transaction commit (rollback = ไม่มี doc ผี)
+     */
+    public void index(News news) {
+        if (!isEnabled() || news.getId() == null) {
+            return;
+        }
+        afterCommit(() -> replaceDocument(news));
+    }
+
+    private void replaceDocument(News news) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByNewsId.get(news.getId());
+            if (existing != null) {
+                deleteDocument(existing);
+            }
+            addDocument(news);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ข่าวถูก soft delete ยังค้นหาได้สำหรับ admin (มีผลหลัง transaction commit)
+     */
+    public void markRemoved(Long newsId) {
+        if (!isEnabled()) {
+            return;
+        }
+        afterCommit(() -> setRemoved(newsId));
+    }
+
+    private void setRemoved(Long newsId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByNewsId.get(newsId);
+            if (doc != null) {
+                removed.set(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ค้นหาข่าวที่มีทุก term ของ query เรียงตามคะแนน BM25 (มากไปน้อย)
+     *
+     * @return news id ที่ตรงกับ query
+     */
+    public long[] search(String query, boolean includeVisible, boolean includeRemoved) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists[i++] = list;
+            }
+            // เริ่มจาก postings ที่สั้นที่สุด แล้วตรวจ doc นั้นใน list อื่นด้วย binary search
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            float avgLength = liveDocCount == 0 ? 1f : (float) totalLength / liveDocCount;
+            float[] idf = new float[lists.length];
+            for (int t = 0; t < lists.length; t++) {
+                idf[t] = idf(lists[t].size);
+            }
+
+            Postings shortest = lists[0];
+            int[] hitDocs = new int[shortest.size];
+            float[] hitScores = new float[shortest.size];
+            int hits = 0;
+
+            candidates:
+            for (int p = 0; p < shortest.size; p++) {
+                int doc = shortest.docs[p];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                boolean isRemoved = removed.get(doc);
+                if ((isRemoved && !includeRemoved) || (!isRemoved && !includeVisible)) {
+                    continue;
+                }
+
+                float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                float score = idf[0] * termScore(shortest.freqs[p], norm);
+                for (int t = 1; t < lists.length; t++) {
+                    int pos = Arrays.binarySearch(lists[t].docs, 0, lists[t].size, doc);
+                    if (pos < 0) {
+                        continue candidates;
+                    }
+                    score += idf[t] * termScore(lists[t].freqs[pos], norm);
+                }
+                hitDocs[hits] = doc;
+                hitScores[hits] = score;
+                hits++;
+            }
+
+            Integer[] order = new Integer[hits];
+            for (int h = 0; h < hits; h++) {
+                order[h] = h;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byScore = Float.compare(hitScores[b], hitScores[a]);
+                return byScore != 0 ? byScore : Long.compare(newsIds[hitDocs[b]], newsIds[hitDocs[a]]);
+            });
+
+            long[] result = new long[hits];
+            for (int h = 0; h < hits; h++) {
+                result[h] = newsIds[hitDocs[order[h]]];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private float idf(int documentFrequency) {
+        int withoutTerm = Math.max(liveDocCount - documentFrequency, 0);
+        return (float) Math.log(1 + (withoutTerm + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float termScore(int tf, float norm) {
+        return tf * (K1 + 1) / (tf + norm);
+    }
+
+    // ต้องถือ write lock
+    private void addDocument(News news) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        length += collect(frequencies, news.getTopic(), TOPIC_WEIGHT);
+        length += collect(frequencies, news.getReporter(), REPORTER_WEIGHT);
+        length += collect(frequencies, news.getShortDetail(), DETAIL_WEIGHT);
+        if (indexFullDetail) {
+            length += collect(frequencies, news.getFullDetail(), DETAIL_WEIGHT);
+        }
+
+        int doc = docCount++;
+        if (doc == newsIds.length) {
+            newsIds = Arrays.copyOf(newsIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+        newsIds[doc] = news.getId();
+        docLengths[doc] = length;
+        docByNewsId.put(news.getId(), doc);
+        if (news.isRemoved()) {
+            removed.set(doc);
+        }
+        liveDocCount++;
+        totalLength += length;
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+        }
+    }
+
+    // ต้องถือ write lock
+    private void deleteDocument(int doc) {
+        deleted.set(doc);
+        liveDocCount--;
+        totalLength -= docLengths[doc];
+    }
+
+    private static int collect(Map<String, Integer> frequencies, String text, int weight) {
+        int length = 0;
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+            length += weight;
+        }
+        return length;
+    }
+
+    /**
+     * ตัดคำด้วย BreakIterator (รองรับการตัดคำภาษาไทยด้วย dictionary ของ JDK)
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        BreakIterator words = BreakIterator.getWordInstance(TOKEN_LOCALE);
+        words.setText(text);
+        int start = words.first();
+        for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+            if (Character.isLetterOrDigit(text.codePointAt(start))) {
+                tokens.add(text.substring(start, end).toLowerCase(Locale.ROOT));
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    // ใน transaction: รอจน commit ก่อน นอก transaction: ทำทันที
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
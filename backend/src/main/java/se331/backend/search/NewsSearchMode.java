@@ -0,0 +1,26 @@
+package se331.backend.search;
+
+/**
+ * วิธีค้นหา keyword ของข่าว (news.search.mode)
+ */
+public enum NewsSearchMode {
+    /** LIKE '%keyword%' ใน database (ค่าเริ่มต้น/fallback) */
+    LIKE,
+    /** inverted index ในหน่วยความจำ (BM25) */
+    INDEX,
+    /** MySQL FULLTEXT index (MATCH ... AGAINST) */
+    FULLTEXT,
+    /** trigram index ในหน่วยความจำ (substring เหมือน LIKE แต่ไม่ต้อง scan ทั้งตาราง) */
+    TRIGRAM;
+
+    public static NewsSearchMode from(String value) {
+        if (value != null) {
+            for (NewsSearchMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return LIKE;
+    }
+}
@@ -0,0 +1,284 @@
+package se331.backend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsSuggestionDTO;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.repository.NewsRepository;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Prefix trie สำหรับ autocomplete จากคำใน topic และชื่อ reporter ของข่าวที่ยังไม่ถูกลบ
+ *
+ * ทุก node เก็บ top-k คำแนะนำของ subtree ไว้แล้ว (เรียงตามจำนวนโหวตรวม) จึงตอบได้ใน O(ความยาว prefix + k)
+ * ไม่ขึ้นกับจำนวนข่าว เมื่อคะแนนของคำที่อยู่ใน top-k ลดลง node นั้นจะถูกคำนวณใหม่ตอนถูกถามครั้งถัดไป
+ * โหวตใหม่แค่บวกคะแนนให้คำเดิมแล้วเรียง top-k ใหม่ในที่ (ไม่ทำให้ node ต้องคำนวณใหม่)
+ */
+@Slf4j
+@Component
+public class NewsSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final String TOPIC = "topic";
+    private static final String REPORTER = "reporter";
+
+    private static final Comparator<Term> RANKING = Comparator
+            .comparingLong((Term term) -> term.votes).reversed()
+            .thenComparing(Comparator.comparingInt((Term term) -> term.newsCount).reversed())
+            .thenComparing(term -> term.text);
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    // สิ่งที่ข่าวแต่ละข่าวบวกเข้าไป เพื่อหักออกได้ตอนลบ/index ใหม่
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        List<News> allNews = newsRepository.findAll();
+        synchronized (this) {
+            for (News news : allNews) {
+                index(news);
+            }
+        }
+        log.info("News suggest index built: {} terms", terms.size());
+    }
+
+    /**
+     * เพิ่มข่าวหรือปรับคะแนนใหม่ (เช่นหลังมีโหวต) ข่าวที่ถูกลบจะถูกเอาออก
+     */
+    public void index(News news) {
+        index(news.getId(), news.isRemoved(), news.getTotalVotes() != null ? news.getTotalVotes() : 0,
+                news.getTopic(), news.getReporter());
+    }
+
+    /**
+     * เหมือน index(News) สำหรับ path ที่ได้ค่าข่าวหลังโหวตมาเป็น summary (ไม่ได้โหลด entity)
+     */
+    public void index(NewsSummaryDTO news) {
+        index(news.getId(), news.isRemoved(), news.getTotalVotes(), news.getTopic(), news.getReporter());
+    }
+
+    private synchronized void index(Long id, boolean removed, int votes, String topic, String reporter) {
+        if (id == null) {
+            return;
+        }
+        Contribution existing = contributions.get(id);
+        if (existing != null && !removed
+                && Objects.equals(existing.topic(), topic) && Objects.equals(existing.reporter(), reporter)) {
+            // คำเหมือนเดิม เปลี่ยนแค่จำนวนโหวต
+            updateVotes(id, existing, votes);
+            return;
+        }
+        remove(id);
+        if (removed) {
+            return;
+        }
+
+        Set<Term> added = new LinkedHashSet<>();
+        for (String word : NewsSearchIndex.tokenize(topic)) {
+            added.add(term(TOPIC, word, List.of(word)));
+        }
+        if (reporter != null && !reporter.isBlank()) {
+            // ค้นได้ทั้งจากต้นชื่อเต็ม และจากต้นของแต่ละคำในชื่อ (เช่นนามสกุล)
+            List<String> keys = new ArrayList<>();
+            keys.add(normalize(reporter));
+            keys.addAll(NewsSearchIndex.tokenize(reporter));
+            added.add(term(REPORTER, reporter.trim(), keys));
+        }
+
+        for (Term term : added) {
+            term.votes += votes;
+            term.newsCount++;
+            promote(term);
+        }
+        contributions.put(id, new Contribution(new ArrayList<>(added), votes, topic, reporter));
+    }
+
+    private void updateVotes(Long id, Contribution existing, int votes) {
+        int delta = votes - existing.votes();
+        if (delta == 0) {
+            return;
+        }
+        for (Term term : existing.terms()) {
+            term.votes += delta;
+            if (delta > 0) {
+                promote(term);
+            } else {
+                demote(term); // ลบโหวต (ลบ comment)
+            }
+        }
+        contributions.put(id, new Contribution(existing.terms(), votes, existing.topic(), existing.reporter()));
+    }
+
+    public synchronized void remove(Long newsId) {
+        Contribution contribution = contributions.remove(newsId);
+        if (contribution == null) {
+            return;
+        }
+        for (Term term : contribution.terms()) {
+            term.votes -= contribution.votes();
+            term.newsCount--;
+            demote(term);
+            if (term.newsCount == 0) {
+                terms.remove(term.id);
+                for (String key : term.keys) {
+                    Node node = find(key);
+                    if (node != null) {
+                        node.terms.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return คำแนะนำที่ขึ้นต้นด้วย prefix (ไม่สนตัวพิมพ์) เรียงตามจำนวนโหวตรวม มากไปน้อย
+     */
+    public synchronized List<NewsSuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit < 1) {
+            return List.of();
+        }
+        Node node = find(normalize(prefix));
+        if (node == null) {
+            return List.of();
+        }
+        if (node.stale) {
+            recompute(node);
+        }
+        return node.top.stream()
+                .limit(Math.min(limit, MAX_SUGGESTIONS))
+                .map(term -> new NewsSuggestionDTO(term.text, term.type, term.votes, term.newsCount))
+                .toList();
+    }
+
+    private Term term(String type, String text, List<String> keys) {
+        String id = type + ':' + normalize(text);
+        Term term = terms.get(id);
+        if (term == null) {
+            term = new Term(id, type, text, keys.stream().distinct().toList());
+            terms.put(id, term);
+            for (String key : term.keys) {
+                insert(key).terms.add(term);
+            }
+        }
+        return term;
+    }
+
+    // คะแนนเพิ่ม: แทรก/เลื่อนขึ้นใน top-k ของทุก node บนเส้นทาง
+    private void promote(Term term) {
+        forEachNodeOnPath(term, node -> {
+            if (node.stale) {
+                return;
+            }
+            if (!node.top.contains(term)) {
+                node.top.add(term);
+            }
+            node.top.sort(RANKING);
+            if (node.top.size() > MAX_SUGGESTIONS) {
+                node.top.remove(node.top.size() - 1);
+            }
+        });
+    }
+
+    // คะแนนลด: ถ้า top-k เต็ม อาจมีคำนอก top-k ที่ควรขึ้นมาแทน จึงให้คำนวณใหม่ภายหลัง
+    private void demote(Term term) {
+        forEachNodeOnPath(term, node -> {
+            if (node.stale || !node.top.contains(term)) {
+                return;
+            }
+            if (node.top.size() >= MAX_SUGGESTIONS) {
+                node.stale = true;
+            } else if (term.newsCount == 0) {
+                node.top.remove(term);
+            } else {
+                node.top.sort(RANKING);
+            }
+        });
+    }
+
+    private void forEachNodeOnPath(Term term, Consumer<Node> action) {
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : term.keys) {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                if (node != null && visited.add(node)) {
+                    action.accept(node);
+                }
+            }
+        }
+    }
+
+    private void recompute(Node node) {
+        Set<Term> subtree = new HashSet<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.pop();
+            subtree.addAll(current.terms);
+            pending.addAll(current.children.values());
+        }
+        node.top = subtree.stream().sorted(RANKING).limit(MAX_SUGGESTIONS)
+                .collect(Collectors.toCollection(ArrayList::new));
+        node.stale = false;
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        // คำที่ key จบที่ node นี้
+        final Set<Term> terms = new HashSet<>();
+        List<Term> top = new ArrayList<>();
+        boolean stale;
+    }
+
+    private static final class Term {
+        final String id;
+        final String type;
+        final String text;
+        final List<String> keys;
+        long votes;
+        int newsCount;
+
+        Term(String id, String type, String text, List<String> keys) {
+            this.id = id;
+            this.type = type;
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    private record Contribution(List<Term> terms, int votes, String topic, String reporter) {
+    }
+}
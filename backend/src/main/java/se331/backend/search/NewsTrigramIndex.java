@@ -0,0 +1,101 @@
+package se331.backend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import se331.backend.entity.Comment;
+import se331.backend.entity.News;
+import se331.backend.repository.CommentRepository;
+import se331.backend.repository.NewsRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index ของข่าว (topic, shortDetail, reporter) และชื่อผู้คอมเมนต์ (Comment.username)
+ * ใช้เมื่อ news.search.mode = trigram เพื่อให้ค้นหา substring ได้โดยไม่ต้อง scan ทั้งตาราง
+ *
+ * index คืนแค่ id ที่ตรง ส่วน removed, status, sort และการแบ่งหน้ายังให้ database ทำเหมือนเดิม
+ */
+@Slf4j
+@Component
+public class NewsTrigramIndex {
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${news.search.mode:like}")
+    private String searchMode;
+
+    private final TrigramIndex news = new TrigramIndex();
+    private final TrigramIndex commenters = new TrigramIndex();
+
+    public boolean isEnabled() {
+        return NewsSearchMode.from(searchMode) == NewsSearchMode.TRIGRAM;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * สร้าง index ใหม่ทั้งหมดจากตาราง news และ comment
+     */
+    public void rebuild() {
+        news.clear();
+        for (News item : newsRepository.findAll()) {
+            indexNews(item);
+        }
+        commenters.clear();
+        for (Object[] row : commentRepository.findAllUsernames()) {
+            commenters.put((Long) row[0], (String) row[1]);
+        }
+        log.info("News trigram index rebuilt: {} news, {} comments", news.size(), commenters.size());
+    }
+
+    public void indexNews(News item) {
+        if (isEnabled() && item.getId() != null) {
+            news.put(item.getId(), item.getTopic(), item.getShortDetail(), item.getReporter());
+        }
+    }
+
+    public void indexComment(Comment comment) {
+        if (isEnabled() && comment.getId() != null) {
+            commenters.put(comment.getId(), comment.getUsername());
+        }
+    }
+
+    public void removeComment(Long commentId) {
+        if (isEnabled() && commentId != null) {
+            commenters.remove(commentId);
+        }
+    }
+
+    /**
+     * @return id ของข่าวที่ topic, shortDetail หรือ reporter มี keyword (ไม่สนตัวพิมพ์)
+     */
+    public List<Long> findNewsIds(String keyword) {
+        return boxed(news.find(keyword));
+    }
+
+    /**
+     * @return id ของคอมเมนต์ที่ username มี fragment (ไม่สนตัวพิมพ์)
+     */
+    public List<Long> findCommentIds(String fragment) {
+        return boxed(commenters.find(fragment));
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+}
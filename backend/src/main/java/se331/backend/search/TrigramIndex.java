@@ -0,0 +1,205 @@
+package se331.backend.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index สำหรับค้นหา substring แบบไม่สนตัวพิมพ์ (ความหมายเดียวกับ LIKE '%x%' / ContainingIgnoreCase)
+ *
+ * แต่ละ trigram เก็บ postings เป็น int[] ของ doc ที่เรียงอยู่แล้ว (doc ถูกเพิ่มตามลำดับ)
+ * query จะ intersect postings ของทุก trigram ใน fragment (เริ่มจาก list ที่สั้นที่สุด)
+ * แล้วตรวจซ้ำกับข้อความจริง เพราะการมีครบทุก trigram ไม่ได้แปลว่าเป็น substring เสมอ
+ * fragment ที่สั้นกว่า 3 ตัวอักษรไม่มี trigram จึงต้องไล่ตรวจทุก doc
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    // คั่นระหว่าง field เพื่อไม่ให้ substring คร่อมสอง field
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] texts = new String[1024];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docById.clear();
+            deleted.clear();
+            Arrays.fill(texts, 0, docCount, null);
+            docCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * เพิ่ม/แทนที่ข้อความของ id (field ที่เป็น null จะถูกข้าม)
+     */
+    public void put(long id, String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field != null && !field.isEmpty()) {
+                if (text.length() > 0) {
+                    text.append(FIELD_SEPARATOR);
+                }
+                text.append(normalize(field));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docById.remove(id);
+            if (existing != null) {
+                deleteDocument(existing);
+            }
+            addDocument(id, text.toString());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docById.remove(id);
+            if (doc != null) {
+                deleteDocument(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return id ทั้งหมดที่มี fragment อยู่ใน field ใด field หนึ่ง (เรียงตามลำดับที่ถูกเพิ่ม)
+     */
+    public long[] find(String fragment) {
+        if (fragment == null || fragment.isEmpty()) {
+            return new long[0];
+        }
+        String needle = normalize(fragment);
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM) {
+                return scan(needle);
+            }
+
+            Set<Long> grams = new LinkedHashSet<>();
+            for (int i = 0; i + GRAM <= needle.length(); i++) {
+                grams.add(gram(needle, i));
+            }
+            Postings[] lists = new Postings[grams.size()];
+            int n = 0;
+            for (Long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists[n++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            Postings shortest = lists[0];
+            long[] result = new long[shortest.size];
+            int hits = 0;
+            candidates:
+            for (int p = 0; p < shortest.size; p++) {
+                int doc = shortest.docs[p];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                for (int t = 1; t < lists.length; t++) {
+                    if (Arrays.binarySearch(lists[t].docs, 0, lists[t].size, doc) < 0) {
+                        continue candidates;
+                    }
+                }
+                if (texts[doc].contains(needle)) {
+                    result[hits++] = ids[doc];
+                }
+            }
+            return Arrays.copyOf(result, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ต้องถือ read lock
+    private long[] scan(String needle) {
+        long[] result = new long[docCount];
+        int hits = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deleted.get(doc) && texts[doc].contains(needle)) {
+                result[hits++] = ids[doc];
+            }
+        }
+        return Arrays.copyOf(result, hits);
+    }
+
+    // ต้องถือ write lock
+    private void addDocument(long id, String text) {
+        int doc = docCount++;
+        if (doc == ids.length) {
+            ids = Arrays.copyOf(ids, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2);
+        }
+        ids[doc] = id;
+        texts[doc] = text;
+        docById.put(id, doc);
+
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            if (text.charAt(i) != FIELD_SEPARATOR
+                    && text.charAt(i + 1) != FIELD_SEPARATOR
+                    && text.charAt(i + 2) != FIELD_SEPARATOR) {
+                grams.add(gram(text, i));
+            }
+        }
+        for (Long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    // ต้องถือ write lock
+    private void deleteDocument(int doc) {
+        deleted.set(doc);
+        texts[doc] = null;
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
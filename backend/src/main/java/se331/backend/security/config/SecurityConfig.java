@@ -72,7 +72,8 @@ public class SecurityConfig {
                             // (READER, MEMBER, ADMIN ทำได้)
                             .requestMatchers(HttpMethod.POST, "/api/news/*/comments").hasAnyRole("READER", "MEMBER", "ADMIN")
 
-                            // 6. โหวต/คอมเมนต์ (POST /api/comments)
+                            // 6. โหวต/คอมเมนต์ (POST /api/comments) และนำเข้าเป็นชุด (ADMIN เท่านั้น)
+                            .requestMatchers(HttpMethod.POST, "/api/comments/bulk").hasRole("ADMIN")
                             .requestMatchers(HttpMethod.POST, "/api/comments").hasAnyRole("READER", "MEMBER", "ADMIN")
 
                             // 7. โพสต์ข่าวใหม่ (POST /api/news)
@@ -113,7 +114,7 @@ public class SecurityConfig {
         ));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
-        config.setExposedHeaders(List.of("x-total-count"));
+        config.setExposedHeaders(List.of("x-total-count", "x-next-cursor"));
         config.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
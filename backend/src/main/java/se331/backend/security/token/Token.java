@@ -15,7 +15,8 @@ import se331.backend.security.user.User;
 public class Token {
 
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "token_ids")
+  @TableGenerator(name = "token_ids", table = "id_generator", pkColumnValue = "token", allocationSize = 100)
   public Integer id;
 
   @Column(unique = true)
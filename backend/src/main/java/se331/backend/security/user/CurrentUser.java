@@ -0,0 +1,24 @@
+package se331.backend.security.user;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * user ที่ login อยู่ใน request ปัจจุบัน (principal ที่ JwtAuthFilter ใส่ไว้)
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * @return id ของ user หรือ null ถ้าไม่ได้ login (เช่นเรียกจากภายใน/งานนำเข้า)
+     */
+    public static Integer id() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -26,7 +26,8 @@ import java.util.stream.Collectors;
 public class User implements UserDetails {
 
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids")
+  @TableGenerator(name = "user_ids", table = "id_generator", pkColumnValue = "user", allocationSize = 100)
   private Integer id;
   private String parentId;
   private String firstname;
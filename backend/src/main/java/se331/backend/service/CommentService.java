@@ -2,11 +2,21 @@ package se331.backend.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import se331.backend.entity.BulkCommentResultDTO;
 import se331.backend.entity.Comment;
+import se331.backend.entity.CreateCommentRequest;
+import se331.backend.entity.VoteResultDTO;
+
+import java.util.List;
 
 public interface CommentService {
-    Comment save(Comment comment);
+    // comment + vote ของทั้ง POST /api/comments และ POST /api/news/{id}/comments
+    VoteResultDTO createComment(Long newsId, CreateCommentRequest request);
+
+    // นำเข้า comment + vote เป็นชุด (newsId อยู่ในแต่ละรายการ)
+    BulkCommentResultDTO createComments(List<CreateCommentRequest> requests);
     Page<Comment> getCommentsByNewsId(Long newsId, Pageable pageable);
+    Page<Comment> searchByUsername(String username, Pageable pageable);
     void deleteComment(Long id);
     Comment getCommentById(Long id); // เพิ่มบรรทัดนี้
 }
\ No newline at end of file
@@ -5,25 +5,189 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import se331.backend.entity.BulkCommentResultDTO;
 import se331.backend.entity.Comment;
 import se331.backend.dao.CommentDAO;
-import se331.backend.repository.NewsRepository; // 🔥 เพิ่ม import
+import se331.backend.dao.NewsDao;
+import se331.backend.entity.CreateCommentRequest;
 import se331.backend.entity.News; // 🔥 เพิ่ม import
-import se331.backend.entity.Vote; // 🔥 เพิ่ม import
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.Vote;
+import se331.backend.entity.VoteResultDTO;
+import se331.backend.search.NewsSuggestIndex;
+import se331.backend.search.NewsTrigramIndex;
+import se331.backend.security.user.CurrentUser;
+import se331.backend.util.NewsMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentServiceImpl implements CommentService {
 
+    static final int MAX_BULK_ITEMS = 10_000;
+
     @Autowired
     private CommentDAO commentDAO;
 
     @Autowired
-    private NewsRepository newsRepository;
+    private NewsDao newsDao;
+
+    @Autowired
+    private NewsCountCache newsCountCache;
+
+    @Autowired
+    private NewsTrigramIndex newsTrigramIndex;
+
+    @Autowired
+    private NewsSearchCache newsSearchCache;
+
+    @Autowired
+    private NewsSuggestIndex newsSuggestIndex;
+
+    @Autowired
+    private NewsVoteTimeline newsVoteTimeline;
+
+    @Autowired
+    private NewsVoteRegistry newsVoteRegistry;
+
+    @Autowired
+    private NewsMapper newsMapper;
 
+    /**
+     * comment ใหม่ = โหวตใหม่: INSERT comment หนึ่งครั้ง + UPDATE ตัวนับของข่าวหนึ่งครั้ง ใน transaction เดียว
+     * ไม่โหลดข่าวหรือ comments ของข่าว คืนแค่ comment ที่สร้างและยอดโหวตหลังนับ
+     */
     @Override
     @Transactional
-    public Comment save(Comment comment) {
-        return commentDAO.save(comment);
+    public VoteResultDTO createComment(Long newsId, CreateCommentRequest request) {
+        // Validation
+        if (newsId == null || request.getUsername() == null || request.getUsername().trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "newsId and username are required");
+        }
+        Vote vote = parseVote(request.getVote());
+
+        Integer userId = CurrentUser.id();
+        newsVoteRegistry.claim(newsId, userId); // โหวตซ้ำ = 409 โดยไม่ต้องถึง database
+
+        // UPDATE ก่อน INSERT: ได้ lock แถวข่าวก่อน foreign key check ของ comment จึงไม่ deadlock กันเอง
+        // ข่าวไม่มีจริงจะไม่มีแถวถูก update
+        NewsSummaryDTO news = newsDao.addVote(newsId, vote, 1)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + newsId));
+
+        Comment comment = Comment.builder()
+                .username(request.getUsername())
+                .text(request.getText())
+                .image(request.getImage())
+                .vote(vote)
+                .time(Instant.now())
+                .userId(userId)
+                .news(newsDao.getReference(newsId)) // อ้างถึงข่าวโดยไม่ select
+                .build();
+        Comment saved;
+        try {
+            saved = commentDAO.save(comment);
+        } catch (DataIntegrityViolationException ex) {
+            // uk_comment_news_user: โหวตซ้ำที่หลุด registry มา (เช่นจากอีกเครื่อง)
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "User has already voted on news id: " + newsId, ex);
+        }
+
+        newsTrigramIndex.indexComment(saved);
+        newsSuggestIndex.index(news); // จำนวนโหวตเปลี่ยน
+        newsCountCache.invalidateVote(news, vote == Vote.REAL ? 1 : 0, vote == Vote.FAKE ? 1 : 0); // ถ้า status เปลี่ยน
+        newsSearchCache.invalidateAnyStatus(NewsSearchCache.State.of(news));
+        newsVoteTimeline.record(newsId, vote == Vote.REAL ? 1 : 0, vote == Vote.FAKE ? 1 : 0);
+        return new VoteResultDTO(newsMapper.toCommentDTO(saved), news.getVoteSummary());
+    }
+
+    /**
+     * นำเข้าเป็นชุด: ตรวจข่าวทั้งหมดใน query เดียว, ปรับตัวนับโหวตครั้งเดียวต่อข่าว แล้ว INSERT comment ทั้งหมดเป็น JDBC batch
+     * รายการที่ไม่ถูกต้องถูกปฏิเสธทีละรายการ (ไม่ทำให้ทั้งชุดล้ม)
+     *
+     * comment ที่นำเข้าไม่ผูกกับ account ที่เรียก (userId = null) จึงไม่อยู่ใต้กฎหนึ่งโหวตต่อ user
+     */
+    @Override
+    @Transactional
+    public BulkCommentResultDTO createComments(List<CreateCommentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return new BulkCommentResultDTO(0, 0, List.of());
+        }
+        if (requests.size() > MAX_BULK_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BULK_ITEMS + " comments per request");
+        }
+
+        Set<Long> requestedNewsIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(CreateCommentRequest::getNewsId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingNewsIds = newsDao.findSummariesById(requestedNewsIds).stream()
+                .map(NewsSummaryDTO::getId)
+                .collect(Collectors.toSet());
+
+        BulkCommentResultDTO.Item[] items = new BulkCommentResultDTO.Item[requests.size()];
+        // เรียงตาม news id เพื่อให้ lock แถวข่าวตามลำดับเดียวกันทุก transaction (ไม่ deadlock กันเอง)
+        Map<Long, List<Comment>> byNews = new TreeMap<>();
+        Map<Comment, Integer> indexOf = new IdentityHashMap<>(); // Comment เป็น @Data (equals ตาม field) จึงใช้ identity
+        Instant now = Instant.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateCommentRequest request = requests.get(i);
+            Long newsId = request != null ? request.getNewsId() : null;
+            String error = validate(request, existingNewsIds);
+            if (error != null) {
+                items[i] = new BulkCommentResultDTO.Item(i, "rejected", null, newsId, error);
+                continue;
+            }
+            Comment comment = Comment.builder()
+                    .username(request.getUsername())
+                    .text(request.getText())
+                    .image(request.getImage())
+                    .vote(toVote(request.getVote()))
+                    .time(now)
+                    .news(newsDao.getReference(newsId))
+                    .build();
+            byNews.computeIfAbsent(newsId, id -> new ArrayList<>()).add(comment);
+            indexOf.put(comment, i);
+        }
+
+        // UPDATE ตัวนับครั้งเดียวต่อข่าว ก่อน INSERT (ลำดับ lock เดียวกับ createComment)
+        List<Comment> comments = new ArrayList<>();
+        byNews.forEach((newsId, newsComments) -> {
+            int real = realVotes(newsComments);
+            int fake = newsComments.size() - real;
+            newsDao.addVotes(newsId, real, fake, newsComments.size());
+            newsVoteTimeline.record(newsId, real, fake);
+            comments.addAll(newsComments);
+        });
+        commentDAO.insertAll(comments);
+
+        for (Comment comment : comments) {
+            int i = indexOf.get(comment);
+            items[i] = new BulkCommentResultDTO.Item(i, "created", comment.getId(), comment.getNews().getId(), null);
+            newsTrigramIndex.indexComment(comment);
+        }
+        if (!byNews.isEmpty()) {
+            for (NewsSummaryDTO news : newsDao.findSummariesById(byNews.keySet())) {
+                List<Comment> newsComments = byNews.get(news.getId());
+                int real = realVotes(newsComments);
+                newsSuggestIndex.index(news);
+                newsSearchCache.invalidateAnyStatus(NewsSearchCache.State.of(news));
+                newsCountCache.invalidateVote(news, real, newsComments.size() - real);
+            }
+        }
+        return new BulkCommentResultDTO(comments.size(), requests.size() - comments.size(), List.of(items));
     }
 
     @Override
@@ -31,6 +195,11 @@ public class CommentServiceImpl implements CommentService {
         return commentDAO.findByNewsId(newsId, pageable);
     }
 
+    @Override
+    public Page<Comment> searchByUsername(String username, Pageable pageable) {
+        return commentDAO.searchByUsername(username, pageable);
+    }
+
     @Override
     @Transactional
     public void deleteComment(Long id) {
@@ -38,15 +207,23 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = commentDAO.findById(id);
         if (comment != null && comment.getNews() != null) {
             News news = comment.getNews();
+            NewsSearchCache.State before = NewsSearchCache.State.of(news);
 
             // ลบ comment
             commentDAO.deleteById(id);
+            newsVoteRegistry.release(news.getId(), comment.getUserId());
 
-            // อัพเดท vote count ใน news
-            updateNewsVoteCount(news, comment.getVote(), false); // false = ลบ vote
+            // หัก vote count ใน news แบบ atomic
+            newsDao.addVote(news.getId(), comment.getVote(), -1).ifPresent(updated -> {
+                newsSearchCache.invalidate(before, NewsSearchCache.State.of(updated));
+                newsSuggestIndex.index(updated);
+                newsCountCache.invalidateVote(updated,
+                        comment.getVote() == Vote.REAL ? -1 : 0, comment.getVote() == Vote.FAKE ? -1 : 0);
+            });
         } else {
             commentDAO.deleteById(id);
         }
+        newsTrigramIndex.removeComment(id);
     }
 
     @Override
@@ -54,17 +231,47 @@ public class CommentServiceImpl implements CommentService {
         return commentDAO.findById(id);
     }
 
-    // เพิ่ม method สำหรับอัพเดท vote count
-    private void updateNewsVoteCount(News news, Vote vote, boolean isAdd) {
-        if (vote == Vote.REAL) {
-            int currentReal = news.getRealVotes();
-            news.setRealVotes(isAdd ? currentReal + 1 : Math.max(0, currentReal - 1));
-        } else if (vote == Vote.FAKE) {
-            int currentFake = news.getFakeVotes();
-            news.setFakeVotes(isAdd ? currentFake + 1 : Math.max(0, currentFake - 1));
+    private static int realVotes(List<Comment> comments) {
+        return (int) comments.stream().filter(comment -> comment.getVote() == Vote.REAL).count();
+    }
+
+    private static Vote parseVote(String vote) {
+        Vote parsed = toVote(vote);
+        if (parsed == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "vote must be 'real' or 'fake'");
+        }
+        return parsed;
+    }
+
+    // null ถ้าไม่ใช่ real/fake
+    private static Vote toVote(String vote) {
+        if (vote == null) {
+            return null;
+        }
+        try {
+            return Vote.valueOf(vote.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
         }
+    }
 
-        // บันทึก news ที่อัพเดทแล้ว
-        newsRepository.save(news);
+    // เหตุผลที่รายการนำเข้าไม่ถูกต้อง หรือ null ถ้าใช้ได้
+    private static String validate(CreateCommentRequest request, Set<Long> existingNewsIds) {
+        if (request == null) {
+            return "empty item";
+        }
+        if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
+            return "username is required";
+        }
+        if (toVote(request.getVote()) == null) {
+            return "vote must be 'real' or 'fake'";
+        }
+        if (request.getNewsId() == null) {
+            return "newsId is required";
+        }
+        if (!existingNewsIds.contains(request.getNewsId())) {
+            return "News not found with id: " + request.getNewsId();
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
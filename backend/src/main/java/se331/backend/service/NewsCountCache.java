@@ -0,0 +1,120 @@
+package se331.backend.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * cache จำนวนข่าวทั้งหมด (x-total-count) ต่อ (keyword, status, role)
+ * สร้าง/ลบข่าวล้างทั้งหมด ส่วนโหวตล้างเฉพาะ entry ของ status ที่ข่าวเปลี่ยนจากและไป
+ */
+@Component
+public class NewsCountCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Map<CountKey, Long> counts = new ConcurrentHashMap<>();
+
+    // นับที่เริ่มก่อนการล้างจะไม่ถูกเก็บลง cache (กันค่าเก่าค้าง)
+    private final AtomicLong generation = new AtomicLong();
+
+    public long get(String keyword, String status, boolean isAdmin, LongSupplier counter) {
+        CountKey key = new CountKey(normalize(keyword), normalize(status), isAdmin);
+        Long cached = counts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startedAt = generation.get();
+        long count = counter.getAsLong();
+        if (generation.get() == startedAt) {
+            if (counts.size() >= MAX_ENTRIES) {
+                counts.clear();
+            }
+            counts.put(key, count);
+        }
+        return count;
+    }
+
+    /**
+     * ล้าง cache ทันที และอีกครั้งหลัง commit (ถ้าอยู่ใน transaction) เพื่อไม่ให้เก็บค่าที่นับก่อน commit
+     */
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * โหวต/ลบโหวตไม่เปลี่ยนจำนวนรวม (ไม่กรอง, ตาม keyword หรือ removed) เปลี่ยนได้แค่จำนวนต่อ status
+     * และเฉพาะเมื่อ status ของข่าวเปลี่ยน จึงล้างแค่ entry ของ status ก่อนและหลังโหวต
+     *
+     * @param after ข่าวหลังนับโหวตแล้ว
+     * @param real  โหวต real ที่เพิ่ง บวก/ลบ (ลบ = ติดลบ)
+     * @param fake  โหวต fake ที่เพิ่ง บวก/ลบ
+     */
+    public void invalidateVote(NewsSummaryDTO after, int real, int fake) {
+        if (after.isRemoved()) {
+            return; // ข่าวที่ถูกลบไม่อยู่ใน count ของ real/fake/equal
+        }
+        int afterReal = (int) after.getVoteSummary().getReal();
+        int afterFake = (int) after.getVoteSummary().getFake();
+        NewsStatus before = NewsStatus.of(afterReal - real, afterFake - fake);
+        NewsStatus now = NewsStatus.of(afterReal, afterFake);
+        if (before != now) {
+            invalidateStatuses(EnumSet.of(before, now));
+        }
+    }
+
+    /**
+     * ล้าง entry ที่กรองด้วย status เหล่านี้ (ทันที และอีกครั้งหลัง commit)
+     */
+    public void invalidateStatuses(Set<NewsStatus> statuses) {
+        Set<String> keys = statuses.stream()
+                .map(status -> status.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        evict(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keys);
+                }
+            });
+        }
+    }
+
+    private void evict(Set<String> statuses) {
+        generation.incrementAndGet();
+        counts.keySet().removeIf(key -> statuses.contains(key.status()));
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record CountKey(String keyword, String status, boolean admin) {
+    }
+}
@@ -0,0 +1,262 @@
+package se331.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.NewsStatus;
+import se331.backend.search.NewsSearchMode;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * cache ผลการค้นหาข่าวต่อ (keyword, status, role, sort, page, size) เก็บเป็น id ของข่าวในหน้านั้น + จำนวนทั้งหมด
+ * ส่วนตัวข่าว (NewsSummaryDTO) เก็บแยกตาม id เพื่อให้หน้าที่ซ้ำกันไม่ต้องไปถึง database เลย
+ *
+ * เมื่อข่าวเปลี่ยน จะล้างเฉพาะ entry ที่เงื่อนไขค้นหาตรงกับข่าวนั้น (ก่อนหรือหลังเปลี่ยน)
+ * เพราะผลค้นหาที่ไม่ตรงกับข่าวนั้นทั้งสองสถานะ ไม่มีทางเปลี่ยนทั้ง id, ลำดับ และจำนวน
+ */
+@Component
+public class NewsSearchCache {
+
+    private static final int MAX_PAGES = 1000;
+    private static final int MAX_NEWS = 5000;
+
+    @Value("${news.search.mode:like}")
+    private String searchMode;
+
+    private final LinkedHashMap<Key, Entry> pages = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MAX_PAGES) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LinkedHashMap<Long, NewsSummaryDTO> news = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, NewsSummaryDTO> eldest) {
+            if (size() > MAX_NEWS) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // ผลที่ query ก่อนมีการเขียนจะไม่ถูกเก็บ (กันค่าเก่าค้าง) เหมือน NewsCountCache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public static Key key(String keyword, String status, boolean isAdmin, Pageable pageable) {
+        return new Key(normalize(keyword), normalize(status), isAdmin, pageable.getSort().toString(),
+                pageable.isPaged() ? pageable.getPageNumber() : -1,
+                pageable.isPaged() ? pageable.getPageSize() : -1);
+    }
+
+    /**
+     * @return หมายเลข generation ปัจจุบัน ต้องอ่านก่อน query แล้วส่งให้ put
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param loader โหลดข่าวที่ไม่มีใน cache แล้ว (ถูก evict ไป) จาก database
+     * @return ข่าวในหน้านั้นตามลำดับเดิม หรือ null ถ้าไม่มีใน cache
+     */
+    public CachedPage get(Key key, Function<Collection<Long>, List<NewsSummaryDTO>> loader) {
+        Entry entry;
+        synchronized (this) {
+            entry = pages.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+
+        Map<Long, NewsSummaryDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : entry.ids()) {
+                NewsSummaryDTO dto = news.get(id);
+                if (dto != null) {
+                    found.put(id, dto);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            long startedAt = generation.get();
+            List<NewsSummaryDTO> loaded = loader.apply(missing);
+            loaded.forEach(dto -> found.put(dto.getId(), dto));
+            synchronized (this) {
+                if (generation.get() == startedAt) {
+                    loaded.forEach(dto -> news.put(dto.getId(), dto));
+                }
+            }
+        }
+
+        List<NewsSummaryDTO> content = new ArrayList<>(entry.ids().size());
+        for (Long id : entry.ids()) {
+            NewsSummaryDTO dto = found.get(id);
+            if (dto != null) {
+                content.add(dto);
+            }
+        }
+        return new CachedPage(content, entry.total());
+    }
+
+    public void put(Key key, long startedAt, List<NewsSummaryDTO> content, long total) {
+        List<Long> ids = content.stream().map(NewsSummaryDTO::getId).toList();
+        synchronized (this) {
+            if (generation.get() != startedAt) {
+                return;
+            }
+            pages.put(key, new Entry(ids, total));
+            content.forEach(dto -> news.put(dto.getId(), dto));
+        }
+    }
+
+    /**
+     * ข่าวถูกเพิ่ม/แก้ไข: ล้าง entry ที่ตรงกับสถานะก่อน (null = ข่าวใหม่) หรือหลังเปลี่ยน
+     * ทำซ้ำอีกครั้งหลัง commit เพื่อไม่ให้ query ที่อ่านก่อน commit ใส่ค่าเก่ากลับเข้ามา
+     */
+    public void invalidate(State before, State after) {
+        evict(before, after);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(before, after);
+                }
+            });
+        }
+    }
+
+    /**
+     * ล้างทุกหน้าและทุกข่าว (query ที่เริ่มก่อนล้างจะไม่ถูกเก็บ)
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        pages.clear();
+        news.clear();
+    }
+
+    /**
+     * vote ใหม่ที่ยังไม่รู้ว่า status จะเป็นอะไร: ล้างทุก entry ที่ตรงกับข่าวนี้ไม่ว่า status ใด
+     */
+    public void invalidateAnyStatus(News changed) {
+        invalidateAnyStatus(State.of(changed));
+    }
+
+    public void invalidateAnyStatus(State state) {
+        invalidate(state, new State(state.id(), state.topic(), state.shortDetail(), state.reporter(), null, state.removed()));
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), pages.size(), news.size());
+        }
+    }
+
+    private synchronized void evict(State before, State after) {
+        generation.incrementAndGet();
+        int sizeBefore = pages.size();
+        pages.keySet().removeIf(key -> matches(key, before) || matches(key, after));
+        invalidations.addAndGet(sizeBefore - pages.size());
+        State changed = after != null ? after : before;
+        if (changed != null && changed.id() != null) {
+            news.remove(changed.id());
+        }
+    }
+
+    private boolean matches(Key key, State state) {
+        if (state == null) {
+            return false;
+        }
+        if (state.removed() && !key.admin()) {
+            return false;
+        }
+        return matchesStatus(key.status(), state) && matchesKeyword(key.keyword(), state);
+    }
+
+    private static boolean matchesStatus(String status, State state) {
+        if (status.isEmpty() || status.equals("all")) {
+            return true;
+        }
+        if (status.equals("removed")) {
+            return state.removed();
+        }
+        NewsStatus newsStatus = NewsStatus.fromParam(status);
+        // status == null คือยังไม่รู้ status หลัง vote ถือว่าตรงทุกค่า
+        return newsStatus != null && !state.removed() && (state.status() == null || state.status() == newsStatus);
+    }
+
+    private boolean matchesKeyword(String keyword, State state) {
+        if (keyword.isEmpty()) {
+            return true;
+        }
+        NewsSearchMode mode = NewsSearchMode.from(searchMode);
+        if (mode != NewsSearchMode.LIKE && mode != NewsSearchMode.TRIGRAM) {
+            // index/fulltext ตัดคำต่างจาก substring จึงถือว่าอาจตรงไว้ก่อน
+            return true;
+        }
+        return contains(state.topic(), keyword)
+                || contains(state.shortDetail(), keyword)
+                || contains(state.reporter(), keyword);
+    }
+
+    private static boolean contains(String text, String keyword) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    public record Key(String keyword, String status, boolean admin, String sort, int page, int size) {
+    }
+
+    private record Entry(List<Long> ids, long total) {
+    }
+
+    /**
+     * ข่าวในหน้าที่ได้จาก cache
+     */
+    public record CachedPage(List<NewsSummaryDTO> content, long total) {
+    }
+
+    /**
+     * ค่าของข่าวที่มีผลกับการค้นหา (เก็บไว้ก่อนแก้ไข เพื่อเทียบกับเงื่อนไขเดิม)
+     */
+    public record State(Long id, String topic, String shortDetail, String reporter, NewsStatus status, boolean removed) {
+        public static State of(News news) {
+            return new State(news.getId(), news.getTopic(), news.getShortDetail(), news.getReporter(),
+                    news.getStatus(), news.isRemoved());
+        }
+
+        public static State of(NewsSummaryDTO news) {
+            return new State(news.getId(), news.getTopic(), news.getShortDetail(), news.getReporter(),
+                    NewsStatus.fromParam(news.getStatus()), news.isRemoved());
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int cachedPages, int cachedNews) {
+    }
+}
@@ -2,21 +2,47 @@ package se331.backend.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import se331.backend.entity.CreateCommentRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import se331.backend.entity.CreateNewsRequest;
+import se331.backend.entity.NewsCursorPage;
 import se331.backend.entity.NewsDTO;
+import se331.backend.entity.NewsFacetsDTO;
+import se331.backend.entity.NewsSuggestionDTO;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.VoteTimelineDTO;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface NewsService {
-    List<NewsDTO> getAllNews();
-    List<NewsDTO> getRemovedNews();
+    List<NewsSummaryDTO> getAllNews(Sort sort);
+    List<NewsSummaryDTO> getRemovedNews(Sort sort);
+
+    // เขียนข่าวทีละบรรทัดเป็น NDJSON (application/x-ndjson) โดยไม่สร้าง List ทั้งก้อน
+    void streamAllNews(Sort sort, OutputStream out);
+    void streamRemovedNews(Sort sort, OutputStream out);
     NewsDTO getNewsById(Long id);
     NewsDTO createNews(CreateNewsRequest request);
-    NewsDTO addCommentToNews(Long newsId, CreateCommentRequest request);
     void deleteNews(Long id);
     void deleteCommentFromNews(Long newsId, Long commentId);
 
     // *** อัปเดต: เพิ่ม parameter status ***
-    Page<NewsDTO> getNews(String title, String status, Pageable pageable);
+    Page<NewsSummaryDTO> getNews(String title, String status, Pageable pageable);
+    Slice<NewsSummaryDTO> getNewsSlice(String title, String status, Pageable pageable); // ไม่นับ total
+
+    // keyset pagination: cursor ว่าง = เริ่มจากหน้าแรกตาม sort
+    NewsCursorPage getNewsAfter(String title, String status, Sort sort, String cursor, int limit, boolean withCount);
+
+    // จำนวนข่าวต่อ status และ top-N reporter ของ keyword
+    NewsFacetsDTO getFacets(String title, int reporterLimit);
+
+    // autocomplete จาก prefix ของคำใน topic / ชื่อ reporter
+    List<NewsSuggestionDTO> suggest(String prefix, int limit);
+
+    // สถิติของ search result cache (admin เท่านั้น)
+    NewsSearchCache.Stats getSearchCacheStats();
+
+    // โหวต real/fake ต่อนาทีของข่าว (จากหน่วยความจำ)
+    VoteTimelineDTO getVoteTimeline(Long id);
 }
\ No newline at end of file
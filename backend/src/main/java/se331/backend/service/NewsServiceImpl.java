@@ -1,9 +1,15 @@
 package se331.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -12,49 +18,146 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import se331.backend.dao.CommentDAO;
 import se331.backend.dao.NewsDao;
 import se331.backend.entity.*;
+import se331.backend.search.NewsSearchIndex;
+import se331.backend.search.NewsSuggestIndex;
+import se331.backend.search.NewsTrigramIndex;
+import se331.backend.util.NewsCursor;
 import se331.backend.util.NewsMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class NewsServiceImpl implements NewsService {
 
+    private static final int STREAM_CHUNK = 100;
+
     @Autowired
     private NewsDao newsDao;
 
     @Autowired
     private NewsMapper newsMapper;
 
+    @Autowired
+    private CommentDAO commentDAO;
+
+    // จำนวน comment ล่าสุดที่แนบไปกับแต่ละข่าวใน list (ที่เหลือดูผ่าน /api/comments/news/{newsId})
+    @Value("${news.list.latest-comments:3}")
+    private int latestComments;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsSearchIndex newsSearchIndex;
+
+    @Autowired
+    private NewsTrigramIndex newsTrigramIndex;
+
+    @Autowired
+    private NewsSuggestIndex newsSuggestIndex;
+
+    @Autowired
+    private NewsCountCache newsCountCache;
+
+    @Autowired
+    private NewsSearchCache newsSearchCache;
+
+    @Autowired
+    private NewsVoteBuffer newsVoteBuffer;
+
+    @Autowired
+    private NewsVoteRegistry newsVoteRegistry;
+
+    @Autowired
+    private NewsVoteTimeline newsVoteTimeline;
+
     /**
-     * ดึงข่าวทั้งหมด (user ปกติเห็นเฉพาะข่าวที่ไม่ถูกลบ)
+     * ดึงข่าวทั้งหมด (user ปกติเห็นเฉพาะข่าวที่ไม่ถูกลบ) เป็น summary ไม่มี fullDetail/comments
      */
     @Override
-    public List<NewsDTO> getAllNews() {
-        List<News> allNews = newsDao.findAll();
-        boolean isAdmin = isCurrentUserAdmin();
-
-        // กรองข่าว: ถ้าไม่ใช่ admin จะไม่เห็นข่าวที่ถูกลบ
-        return allNews.stream()
-                .filter(news -> !news.isRemoved() || isAdmin)
-                .map(newsMapper::toNewsDTO) // แปลง Entity → DTO
-                .collect(Collectors.toList());
+    public List<NewsSummaryDTO> getAllNews(Sort sort) {
+        // กรองข่าว: ถ้าไม่ใช่ admin จะไม่เห็นข่าวที่ถูกลบ (กรองและเรียงใน SQL)
+        return withLatestComments(newsDao.findAllSummaries(null, isCurrentUserAdmin(), sort));
     }
 
     /**
      * ดึงเฉพาะข่าวที่ถูกลบ (สำหรับ admin)
      */
     @Override
-    public List<NewsDTO> getRemovedNews() {
+    public List<NewsSummaryDTO> getRemovedNews(Sort sort) {
         // เดิมมี security check แต่ถูก comment ออก
-        return newsDao.findAll().stream()
-                .filter(News::isRemoved) // กรองเฉพาะข่าวที่ removed = true
-                .map(newsMapper::toNewsDTO)
-                .collect(Collectors.toList());
+        return withLatestComments(newsDao.findAllSummaries("removed", true, sort)); // กรองเฉพาะข่าวที่ removed = true
+    }
+
+    /**
+     * เหมือน getAllNews แต่อ่านจาก database cursor แล้วเขียนออกทีละข่าว
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllNews(Sort sort, OutputStream out) {
+        stream(null, isCurrentUserAdmin(), sort, out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRemovedNews(Sort sort, OutputStream out) {
+        stream("removed", true, sort, out);
+    }
+
+    // เขียนเป็นชุดละ STREAM_CHUNK ข่าว เพื่อดึง comment ล่าสุดของทั้งชุดใน query เดียว
+    private void stream(String status, boolean includeRemoved, Sort sort, OutputStream out) {
+        List<NewsSummaryDTO> chunk = new ArrayList<>(STREAM_CHUNK);
+        newsDao.forEach(status, includeRemoved, sort, news -> {
+            chunk.add(news);
+            if (chunk.size() == STREAM_CHUNK) {
+                writeLines(out, chunk);
+            }
+        });
+        writeLines(out, chunk);
+    }
+
+    private void writeLines(OutputStream out, List<NewsSummaryDTO> chunk) {
+        try {
+            for (NewsSummaryDTO dto : withLatestComments(chunk)) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * แนบ comment ล่าสุด latestComments รายการให้ทุกข่าวใน list ด้วย query เดียว (ROW_NUMBER ต่อข่าว)
+     * ขนาดของ response ต่อหน้าจึงไม่โตตามจำนวน comment ของข่าว
+     */
+    private List<NewsSummaryDTO> withLatestComments(List<NewsSummaryDTO> summaries) {
+        if (summaries.isEmpty() || latestComments < 1) {
+            return summaries;
+        }
+        List<Long> ids = summaries.stream().map(NewsSummaryDTO::getId).collect(Collectors.toList());
+        Map<Long, List<CommentDTO>> byNews = new HashMap<>();
+        for (Comment comment : commentDAO.findLatestByNewsIds(ids, latestComments)) {
+            byNews.computeIfAbsent(comment.getNews().getId(), id -> new ArrayList<>())
+                    .add(newsMapper.toCommentDTO(comment));
+        }
+        summaries.forEach(summary -> summary.setLatestComments(byNews.getOrDefault(summary.getId(), List.of())));
+        return summaries;
     }
 
     /**
@@ -62,15 +165,20 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     public NewsDTO getNewsById(Long id) {
-        News news = newsDao.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("News not found with id: " + id));
+        // อ่านแถวข่าวกับรวมโหวตค้างภายใต้ read lock เดียวกัน (flush แทรกไม่ได้)
+        return newsVoteBuffer.read(() -> {
+            News news = newsDao.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("News not found with id: " + id));
 
-        // ถ้าข่าวถูกลบและ user ไม่ใช่ admin = ห้ามดู
-        if (news.isRemoved() && !isCurrentUserAdmin()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + id);
-        }
+            // ถ้าข่าวถูกลบและ user ไม่ใช่ admin = ห้ามดู
+            if (news.isRemoved() && !isCurrentUserAdmin()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + id);
+            }
 
-        return newsMapper.toNewsDTO(news);
+            NewsDTO dto = newsMapper.toNewsDTO(news);
+            newsVoteBuffer.merge(dto);
+            return dto;
+        });
     }
 
     /**
@@ -106,32 +214,14 @@ public class NewsServiceImpl implements NewsService {
         news.setRemoved(false); // ข่าวใหม่ยังไม่ถูกลบ
 
         News savedNews = newsDao.save(news); // บันทึกลง database
+        newsSearchIndex.index(savedNews); // เพิ่มเข้า search index
+        newsTrigramIndex.indexNews(savedNews);
+        newsSuggestIndex.index(savedNews);
+        newsCountCache.invalidateAll();
+        newsSearchCache.invalidate(null, NewsSearchCache.State.of(savedNews));
         return newsMapper.toNewsDTO(savedNews);
     }
 
-    /**
-     * เพิ่ม comment และ vote ให้กับข่าว
-     */
-    @Override
-    @Transactional
-    public NewsDTO addCommentToNews(Long newsId, CreateCommentRequest request) {
-        News news = newsDao.findById(newsId)
-                .orElseThrow(() -> new EntityNotFoundException("News not found with id: " + newsId));
-
-        // สร้าง comment object
-        Comment comment = new Comment();
-        comment.setUsername(request.getUsername());
-        comment.setText(request.getText());
-        comment.setImage(request.getImage());
-        comment.setTime(Instant.now());
-        comment.setVote(Vote.valueOf(request.getVote().toUpperCase())); // แปลง String → Enum
-
-        news.addComment(comment); // เพิ่ม comment เข้าไปในข่าว
-
-        News updatedNews = newsDao.save(news);
-        return newsMapper.toNewsDTO(updatedNews);
-    }
-
     /**
      * ลบข่าว
      */
@@ -140,8 +230,13 @@ public class NewsServiceImpl implements NewsService {
     public void deleteNews(Long id) {
         News news = newsDao.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + id));
+        NewsSearchCache.State before = NewsSearchCache.State.of(news);
         news.setRemoved(true); // ทำเครื่องหมายว่าถูกลบ (ไม่ลบจริงออกจาก DB)
         newsDao.save(news);
+        newsSearchIndex.markRemoved(id);
+        newsSuggestIndex.remove(id);
+        newsCountCache.invalidateAll();
+        newsSearchCache.invalidate(before, NewsSearchCache.State.of(news));
     }
 
     /**
@@ -153,65 +248,225 @@ public class NewsServiceImpl implements NewsService {
         News news = newsDao.findById(newsId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + newsId));
 
-        // หา comment ที่ต้องการลบ
-        Comment targetComment = news.getComments().stream()
-                .filter(comment -> comment.getId() != null && comment.getId().equals(commentId))
-                .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                        "Comment not found with id: " + commentId + " for news id: " + newsId));
+        // หา comment ที่ต้องการลบ (โหลดแค่ comment นั้น ไม่ใช่ comments ทั้งข่าว)
+        Comment targetComment = commentDAO.findById(commentId);
+        if (targetComment == null || targetComment.getNews() == null
+                || !newsId.equals(targetComment.getNews().getId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Comment not found with id: " + commentId + " for news id: " + newsId);
+        }
 
-        news.removeComment(targetComment); // ลบ comment ออกจาก list
-        newsDao.save(news);
+        NewsSearchCache.State before = NewsSearchCache.State.of(news);
+        commentDAO.deleteById(commentId);
+        newsVoteRegistry.release(newsId, targetComment.getUserId());
+        // หักโหวตแบบ atomic เหมือนตอนเพิ่ม
+        NewsSummaryDTO updated = newsDao.addVote(newsId, targetComment.getVote(), -1)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found with id: " + newsId));
+        newsTrigramIndex.removeComment(commentId);
+        newsSuggestIndex.index(updated);
+        newsCountCache.invalidateVote(updated,
+                targetComment.getVote() == Vote.REAL ? -1 : 0, targetComment.getVote() == Vote.FAKE ? -1 : 0);
+        newsSearchCache.invalidate(before, NewsSearchCache.State.of(updated));
     }
 
     /**
-     * ค้นหาและกรองข่าว
+     * write-behind flush ยอดโหวตลง database แล้ว: ผล SQL ที่กรอง status / เรียงตามโหวตของข่าวเหล่านี้เปลี่ยน
+     */
+    @EventListener
+    public void onVotesFlushed(NewsVoteBuffer.Flushed event) {
+        // status ใน database ของข่าวเหล่านี้อาจเปลี่ยน: จำนวนรวมไม่เปลี่ยน ล้างแค่ count ที่กรองด้วย status
+        newsCountCache.invalidateStatuses(EnumSet.allOf(NewsStatus.class));
+        for (NewsSummaryDTO news : newsDao.findSummariesById(event.newsIds())) {
+            newsSearchCache.invalidateAnyStatus(NewsSearchCache.State.of(news));
+        }
+    }
+
+    /**
+     * ค้นหาและกรองข่าว หน้าที่เคยค้นแล้วมาจาก NewsSearchCache (x-total-count มาจาก NewsCountCache)
+     */
+    @Override
+    public Page<NewsSummaryDTO> getNews(String title, String status, Pageable pageable) {
+        boolean isAdmin = isCurrentUserAdmin();
+        requireStatusAllowed(status, isAdmin);
+
+        NewsSearchCache.Key key = NewsSearchCache.key(title, status, isAdmin, pageable);
+        NewsSearchCache.CachedPage cached = newsSearchCache.get(key,
+                ids -> withLatestComments(newsDao.findSummariesById(ids)));
+        if (cached != null) {
+            return new PageImpl<>(cached.content(), pageable, cached.total());
+        }
+
+        long generation = newsSearchCache.generation();
+        List<NewsSummaryDTO> content = withLatestComments(findNewsSlice(title, status, isAdmin, pageable).getContent());
+        long total = countNews(title, status, isAdmin);
+        newsSearchCache.put(key, generation, content, total);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * นับข่าวต่อ status และต่อ reporter ของ keyword ใน query เดียว ใช้กฎเรื่อง role เดียวกับ getNews
+     * (ไม่ใช่ admin จะไม่นับข่าวที่ถูกลบและไม่มี facet removed)
      */
     @Override
-    public Page<NewsDTO> getNews(String title, String status, Pageable pageable) {
-        Page<News> newsPage;
+    public NewsFacetsDTO getFacets(String title, int reporterLimit) {
         boolean isAdmin = isCurrentUserAdmin();
 
-        // ตรวจสอบ: ถ้าไม่ใช่ admin ห้ามดูข่าวที่ถูกลบ
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (NewsStatus newsStatus : NewsStatus.values()) {
+            statuses.put(newsStatus.name().toLowerCase(), 0L);
+        }
+        if (isAdmin) {
+            statuses.put("removed", 0L);
+        }
+        Map<String, Long> reporters = new HashMap<>();
+        long total = 0;
+
+        for (NewsDao.FacetCount row : newsDao.countByStatusAndReporter(title, isAdmin)) {
+            long count = row.count();
+            String facet = row.removed() ? "removed" : row.status().name().toLowerCase();
+            statuses.merge(facet, count, Long::sum);
+
+            String reporter = row.reporter();
+            if (reporter != null) {
+                reporters.merge(reporter, count, Long::sum);
+            }
+            total += count;
+        }
+
+        List<NewsFacetsDTO.ReporterCount> topReporters = reporters.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(Math.max(reporterLimit, 0))
+                .map(entry -> new NewsFacetsDTO.ReporterCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new NewsFacetsDTO(total, statuses, topReporters);
+    }
+
+    /**
+     * autocomplete: ตอบจาก NewsSuggestIndex ในหน่วยความจำ ไม่ query database
+     */
+    @Override
+    public List<NewsSuggestionDTO> suggest(String prefix, int limit) {
+        return newsSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public NewsSearchCache.Stats getSearchCacheStats() {
+        if (!isCurrentUserAdmin()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can view cache statistics");
+        }
+        return newsSearchCache.stats();
+    }
+
+    /**
+     * กราฟความเร็วโหวต: ตอบจาก NewsVoteTimeline ในหน่วยความจำ ไม่ query database
+     */
+    @Override
+    public VoteTimelineDTO getVoteTimeline(Long id) {
+        return newsVoteTimeline.timeline(id);
+    }
+
+    /**
+     * ค้นหาและกรองข่าวโดยไม่นับจำนวนทั้งหมด (สำหรับ infinite scroll)
+     */
+    @Override
+    public Slice<NewsSummaryDTO> getNewsSlice(String title, String status, Pageable pageable) {
+        boolean isAdmin = isCurrentUserAdmin();
+        Slice<NewsSummaryDTO> slice = findNewsSlice(title, status, isAdmin, pageable);
+        withLatestComments(slice.getContent());
+        return slice;
+    }
+
+    // ตรวจสอบ: ถ้าไม่ใช่ admin ห้ามดูข่าวที่ถูกลบ
+    private static void requireStatusAllowed(String status, boolean isAdmin) {
         if ("removed".equalsIgnoreCase(status) && !isAdmin) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can view removed news");
         }
+    }
+
+    private Slice<NewsSummaryDTO> findNewsSlice(String title, String status, boolean isAdmin, Pageable pageable) {
+        Slice<NewsSummaryDTO> newsSlice;
+        requireStatusAllowed(status, isAdmin);
 
         // กรณีที่มีทั้ง keyword และ status
         if (title != null && !title.isBlank() && status != null && !status.isBlank()) {
             if (isAdmin) {
-                newsPage = newsDao.searchByKeywordAndStatusIncludingRemoved(title, status, pageable);
+                newsSlice = newsDao.searchByKeywordAndStatusIncludingRemoved(title, status, pageable);
             } else {
-                newsPage = newsDao.searchByKeywordAndStatus(title, status, pageable);
+                newsSlice = newsDao.searchByKeywordAndStatus(title, status, pageable);
             }
         }
         // กรณีที่มี keyword อย่างเดียว
         else if (title != null && !title.isBlank()) {
             if (isAdmin) {
-                newsPage = newsDao.searchByKeywordIncludingRemoved(title, pageable);
+                newsSlice = newsDao.searchByKeywordIncludingRemoved(title, pageable);
             } else {
-                newsPage = newsDao.searchByKeyword(title, pageable);
+                newsSlice = newsDao.searchByKeyword(title, pageable);
             }
         }
         // กรณีที่มี status อย่างเดียว
         else if (status != null && !status.isBlank()) {
             if (isAdmin) {
-                newsPage = newsDao.findAllByStatus(status, pageable);
+                newsSlice = newsDao.findAllByStatus(status, pageable);
             } else {
-                newsPage = newsDao.findAllVisibleByStatus(status, pageable);
+                newsSlice = newsDao.findAllVisibleByStatus(status, pageable);
             }
         }
         // กรณีที่ไม่มีทั้ง keyword และ status (ดึงทั้งหมด)
         else {
             if (isAdmin) {
-                newsPage = newsDao.findAll(pageable);
+                newsSlice = newsDao.findAll(pageable);
             } else {
-                newsPage = newsDao.findAllVisible(pageable);
+                newsSlice = newsDao.findAllVisible(pageable);
             }
         }
+        return newsSlice;
+    }
 
-        // แปลง Page<News> → Page<NewsDTO>
-        return newsPage.map(newsMapper::toNewsDTO);
+    // จำนวนทั้งหมดตาม (keyword, status, role) นับจริงเฉพาะตอน cache miss
+    private long countNews(String title, String status, boolean isAdmin) {
+        return newsCountCache.get(title, status, isAdmin, () -> newsDao.count(title, status, isAdmin));
+    }
+
+    /**
+     * ค้นหาข่าวแบบ keyset pagination (ต่อจาก cursor) ใช้กฎเรื่อง role เดียวกับ getNews
+     */
+    @Override
+    public NewsCursorPage getNewsAfter(String title, String status, Sort sort, String cursor, int limit, boolean withCount) {
+        boolean isAdmin = isCurrentUserAdmin();
+        requireStatusAllowed(status, isAdmin);
+
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "_limit must be at least 1");
+        }
+
+        NewsCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = NewsCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", ex);
+            }
+            sort = after.toSort(); // cursor กำหนด sort เสมอ
+        }
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null || !NewsCursor.supports(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination supports _sort=dateTime or _sort=totalVotes only");
+        }
+
+        // ดึงเกินมา 1 แถวเพื่อรู้ว่ายังมีหน้าถัดไปหรือไม่
+        List<NewsSummaryDTO> rows = newsDao.findAfter(title, status, isAdmin, sort, after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<NewsSummaryDTO> content = withLatestComments(hasNext ? rows.subList(0, limit) : rows);
+
+        String nextCursor = null;
+        if (hasNext) {
+            NewsCursor next = NewsCursor.after(sort, content.get(content.size() - 1));
+            nextCursor = next != null ? next.encode() : null;
+        }
+        Long total = withCount ? countNews(title, status, isAdmin) : null;
+        return new NewsCursorPage(content, total, nextCursor);
     }
 
     private boolean isCurrentUserAdmin() {
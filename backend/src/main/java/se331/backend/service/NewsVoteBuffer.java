@@ -0,0 +1,296 @@
+package se331.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se331.backend.entity.NewsDTO;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.entity.VoteSummaryDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * write-behind ของตัวนับโหวต (news.vote.write-behind.enabled = true)
+ *
+ * โหวตถูกบวกเข้า LongAdder ต่อข่าวในหน่วยความจำ (ไม่แย่ง row lock ของแถวข่าว) แล้ว flush ลง database
+ * เป็น JDBC batch เดียวทุก flush-interval-ms และตอนปิดแอป ค่าที่อ่านผ่าน NewsDao/NewsService รวมยอดที่ยังไม่ flush ให้แล้ว
+ * ส่วน filter ?status= และการเรียงตามโหวตใน SQL จะเห็นยอดใหม่หลัง flush
+ *
+ * การอ่าน (query + รวมยอดค้าง) ทำใน read(...) ซึ่งถือ read lock ส่วน flush ถือ write lock ตั้งแต่ UPDATE จน
+ * หักยอดออกจาก buffer ผู้อ่านจึงเห็นคู่ (database ก่อน flush, ยอดค้างเต็ม) หรือ (database หลัง flush, ยอดค้างที่หักแล้ว)
+ * เท่านั้น ไม่นับซ้ำ (query ต้องเริ่ม snapshot ใหม่ภายใน read เช่นไม่ได้อยู่ใน transaction ที่อ่านข่าวไปก่อนแล้ว)
+ * read ต้องสั้น (query เดียว ไม่มี I/O ไปหา client) งานที่อ่านนานอย่าง NDJSON stream ถือ lock แค่ตอนเปิด cursor
+ * คู่กับ snapshot() แล้วรวมยอดจาก snapshot นั้นนอก lock
+ * flush รอ lock ได้ไม่เกิน FLUSH_LOCK_WAIT_MS ถ้าไม่ได้จะข้ามไปรอบถัดไป
+ */
+@Slf4j
+@Component
+public class NewsVoteBuffer {
+
+    // status/total_votes ต้องมาก่อน real_votes/fake_votes เหมือน NewsRepository.addVotes
+    private static final String FLUSH_SQL = """
+            update news set
+                status = case
+                    when real_votes + ? > fake_votes + ? then 'REAL'
+                    when real_votes + ? < fake_votes + ? then 'FAKE'
+                    else 'EQUAL' end,
+                total_votes = total_votes + ? + ?,
+                real_votes = real_votes + ?,
+                fake_votes = fake_votes + ?,
+                comment_count = comment_count + ?
+            where id = ?
+            """;
+
+    // ระหว่างที่ flush รอ write lock ผู้อ่านใหม่จะถูกพักไว้ด้วย จึงรอได้แค่สั้นๆ
+    private static final long FLUSH_LOCK_WAIT_MS = 200;
+
+    // ตอนปิดแอปไม่มีรอบถัดไป จึงรอได้นานกว่า แต่ไม่รอไม่มีกำหนด
+    private static final long SHUTDOWN_LOCK_WAIT_MS = 10_000;
+
+    @Value("${news.vote.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // ข่าวที่เคยถูกโหวตมีอยู่ตลอด (ลบ entry ระหว่างที่มี thread กำลังบวกอยู่จะทำให้โหวตหาย) จึงมีได้ไม่เกินจำนวนข่าว
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * บวกโหวตเข้า buffer ถ้า transaction ที่บันทึก comment rollback จะหักคืนให้
+     */
+    public void add(Long newsId, int real, int fake, int comments) {
+        apply(newsId, real, fake, comments);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        apply(newsId, -real, -fake, -comments);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * อ่านจาก database แล้วรวมยอดค้างโดยไม่มี flush แทรกระหว่างกลาง (ปิด write-behind = เรียกตรงๆ)
+     */
+    public <T> T read(Supplier<T> reader) {
+        if (!enabled) {
+            return reader.get();
+        }
+        flushLock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ยอดค้างของทุกข่าว ณ ตอนนี้ เรียกภายใน read คู่กับการอ่าน database เพื่อรวมยอดภายหลังนอก lock ได้
+     * (ปิด write-behind = ว่าง)
+     */
+    public Map<Long, Delta> snapshot() {
+        Map<Long, Delta> snapshot = new LinkedHashMap<>();
+        if (!enabled) {
+            return snapshot;
+        }
+        pending.forEach((newsId, counters) -> {
+            Delta delta = new Delta(counters.real.sum(), counters.fake.sum(), counters.comments.sum());
+            if (!delta.isEmpty()) {
+                snapshot.put(newsId, delta);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * @return ยอดที่ยังไม่ flush ของข่าวนี้
+     */
+    public Delta pending(Long newsId) {
+        Counters counters = pending.get(newsId);
+        if (counters == null) {
+            return Delta.NONE;
+        }
+        return new Delta(counters.real.sum(), counters.fake.sum(), counters.comments.sum());
+    }
+
+    /**
+     * รวมยอดที่ยังไม่ flush เข้ากับข่าวที่อ่านจาก database (แก้ object นั้นเลย)
+     */
+    public void merge(NewsSummaryDTO news) {
+        Delta delta = enabled ? pending(news.getId()) : Delta.NONE;
+        if (!delta.isEmpty()) {
+            merge(news, delta);
+        }
+    }
+
+    /**
+     * ใส่โหวตที่เพิ่งบวกเข้า buffer ให้ข่าวที่อ่านมาก่อนบวก
+     */
+    public void merge(NewsSummaryDTO news, int real, int fake, int comments) {
+        merge(news, new Delta(real, fake, comments));
+    }
+
+    public void merge(NewsDTO news) {
+        Delta delta = enabled ? pending(news.getId()) : Delta.NONE;
+        if (delta.isEmpty()) {
+            return;
+        }
+        VoteSummaryDTO votes = merge(news.getVoteSummary(), delta);
+        news.setVoteSummary(votes);
+        news.setTotalVotes((int) (votes.getReal() + votes.getFake()));
+        news.setStatus(status(votes));
+    }
+
+    /**
+     * เขียนยอดค้างทั้งหมดลง database ใน transaction เดียว แล้วหักออกจาก buffer ภายใต้ write lock เดียวกัน
+     * (หักหลัง commit แทน reset ก่อน จึงถ้า flush ล้มยอดยังอยู่ครบ)
+     */
+    @Scheduled(fixedDelayString = "${news.vote.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        flush(false);
+    }
+
+    // ตอนปิดแอป: รอ lock ได้นานกว่ารอบปกติ และไม่ต้องแจ้ง cache (listener อาจถูกทำลายไปแล้ว)
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(true);
+    }
+
+    private synchronized void flush(boolean shutdown) {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        try {
+            if (!flushLock.writeLock().tryLock(shutdown ? SHUTDOWN_LOCK_WAIT_MS : FLUSH_LOCK_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                if (shutdown) {
+                    log.warn("Vote buffer not flushed on shutdown: readers still active, {} news pending", pending.size());
+                } else {
+                    log.debug("Vote buffer flush skipped: readers still active");
+                }
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Map<Long, Delta> snapshot;
+        try {
+            snapshot = flushLocked();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (!shutdown && !snapshot.isEmpty()) {
+            eventPublisher.publishEvent(new Flushed(Set.copyOf(snapshot.keySet())));
+        }
+    }
+
+    // @return ยอดที่เขียนลง database แล้ว (ว่าง = ไม่มีอะไรเขียน)
+    private Map<Long, Delta> flushLocked() {
+        Map<Long, Delta> snapshot = snapshot();
+        if (snapshot.isEmpty()) {
+            return snapshot;
+        }
+
+        List<Object[]> batch = new ArrayList<>(snapshot.size());
+        snapshot.forEach((newsId, delta) -> batch.add(new Object[]{
+                delta.real(), delta.fake(), delta.real(), delta.fake(),
+                delta.real(), delta.fake(),
+                delta.real(), delta.fake(), delta.comments(),
+                newsId}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException ex) {
+            log.warn("Vote buffer flush failed for {} news, retrying next round", snapshot.size(), ex);
+            return Map.of();
+        }
+
+        snapshot.forEach((newsId, delta) ->
+                apply(newsId, (int) -delta.real(), (int) -delta.fake(), (int) -delta.comments()));
+        return snapshot;
+    }
+
+    private void apply(Long newsId, int real, int fake, int comments) {
+        Counters counters = pending.computeIfAbsent(newsId, id -> new Counters());
+        counters.real.add(real);
+        counters.fake.add(fake);
+        counters.comments.add(comments);
+    }
+
+    /**
+     * รวมยอด delta (เช่นจาก snapshot()) เข้ากับข่าว (แก้ object นั้นเลย)
+     */
+    public static void merge(NewsSummaryDTO news, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        VoteSummaryDTO votes = merge(news.getVoteSummary(), delta);
+        news.setVoteSummary(votes);
+        news.setTotalVotes((int) (votes.getReal() + votes.getFake()));
+        news.setCommentCount(news.getCommentCount() + (int) delta.comments());
+        news.setStatus(status(votes));
+    }
+
+    private static VoteSummaryDTO merge(VoteSummaryDTO votes, Delta delta) {
+        long real = votes != null ? votes.getReal() : 0;
+        long fake = votes != null ? votes.getFake() : 0;
+        return new VoteSummaryDTO(real + delta.real(), fake + delta.fake());
+    }
+
+    private static String status(VoteSummaryDTO votes) {
+        return NewsStatus.of((int) votes.getReal(), (int) votes.getFake()).name().toLowerCase();
+    }
+
+    private static final class Counters {
+        final LongAdder real = new LongAdder();
+        final LongAdder fake = new LongAdder();
+        final LongAdder comments = new LongAdder();
+    }
+
+    public record Delta(long real, long fake, long comments) {
+        public static final Delta NONE = new Delta(0, 0, 0);
+
+        public boolean isEmpty() {
+            return real == 0 && fake == 0 && comments == 0;
+        }
+    }
+
+    /**
+     * ยอดของข่าวเหล่านี้ถูกเขียนลง database แล้ว (ผล SQL ที่กรอง/เรียงตามโหวตเปลี่ยน)
+     */
+    public record Flushed(Set<Long> newsIds) {
+    }
+}
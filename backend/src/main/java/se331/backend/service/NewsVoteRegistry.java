@@ -0,0 +1,94 @@
+package se331.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import se331.backend.repository.CommentRepository;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * user ที่โหวตข่าวแต่ละข่าวไปแล้ว (bitmap ของ user id ต่อข่าว) ใช้ตรวจโหวตซ้ำโดยไม่ต้อง query database
+ *
+ * สร้างจากตาราง comment ตอนเริ่มแอป unique constraint uk_comment_news_user ยังเป็นตัวกันจริง
+ * (เช่นหลายเครื่อง หรือช่วงก่อน index พร้อม) ที่นี่เป็นแค่ทางลัดให้โหวตซ้ำถูกปฏิเสธก่อนถึง database
+ */
+@Slf4j
+@Component
+public class NewsVoteRegistry {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final Map<Long, BitSet> voters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        voters.clear();
+        int count = 0;
+        for (Object[] row : commentRepository.findAllVoters()) {
+            mark((Long) row[0], (Integer) row[1]);
+            count++;
+        }
+        log.info("News vote registry built: {} votes on {} news", count, voters.size());
+    }
+
+    /**
+     * จองสิทธิ์โหวตของ user ในข่าวนี้ ถ้า transaction rollback จะคืนสิทธิ์ให้
+     *
+     * @throws ResponseStatusException 409 ถ้า user โหวตข่าวนี้ไปแล้ว
+     */
+    public void claim(Long newsId, Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!mark(newsId, userId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "User has already voted on news id: " + newsId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(newsId, userId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * comment (โหวต) ของ user ถูกลบ: โหวตใหม่ได้
+     */
+    public void release(Long newsId, Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        BitSet users = voters.get(newsId);
+        if (users != null) {
+            synchronized (users) {
+                users.clear(userId);
+            }
+        }
+    }
+
+    // false ถ้ามีอยู่แล้ว
+    private boolean mark(Long newsId, Integer userId) {
+        BitSet users = voters.computeIfAbsent(newsId, id -> new BitSet());
+        synchronized (users) {
+            if (users.get(userId)) {
+                return false;
+            }
+            users.set(userId);
+            return true;
+        }
+    }
+}
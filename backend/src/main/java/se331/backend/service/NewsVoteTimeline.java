@@ -0,0 +1,137 @@
+package se331.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se331.backend.entity.VoteTimelineDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ความเร็วของโหวต: ring buffer ขนาดคงที่ (news.vote.timeline.minutes ช่อง ช่องละหนึ่งนาที) ของโหวต real/fake ต่อข่าว
+ *
+ * ถูกป้อนจากทางโหวต (CommentService) หลัง commit เท่านั้น อ่านกราฟจากที่นี่ล้วนๆ ไม่ query ตาราง comment
+ * ข่าวที่ไม่มีโหวตใหม่ตลอดช่วงของ buffer (ทุกช่องเป็นศูนย์แล้ว) ถูกลบทิ้ง หน่วยความจำจึงโตตามข่าวที่ active เท่านั้น
+ * ข้อมูลเริ่มใหม่เมื่อรีสตาร์ตแอป และนับเฉพาะโหวตที่เข้ามา (การลบ comment ไม่ย้อนไปหักนาทีเดิม)
+ */
+@Component
+public class NewsVoteTimeline {
+
+    private static final int BUCKET_SECONDS = 60;
+
+    @Value("${news.vote.timeline.minutes:60}")
+    private int minutes;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * นับโหวตเข้านาทีปัจจุบันเมื่อ transaction commit (ถ้า rollback ไม่นับ)
+     */
+    public void record(Long newsId, int real, int fake) {
+        if (newsId == null || (real == 0 && fake == 0)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(newsId, real, fake);
+                }
+            });
+        } else {
+            add(newsId, real, fake);
+        }
+    }
+
+    /**
+     * @return ทุกนาทีในช่วงของ buffer (นาทีที่ไม่มีโหวตเป็นศูนย์) ข่าวที่ไม่มีโหวตในช่วงนี้ได้ศูนย์ทั้งหมด
+     */
+    public VoteTimelineDTO timeline(Long newsId) {
+        long now = currentMinute();
+        long from = now - minutes + 1;
+        int[] real = new int[minutes];
+        int[] fake = new int[minutes];
+        Series votes = series.get(newsId);
+        if (votes != null) {
+            votes.copyTo(from, real, fake);
+        }
+
+        List<VoteTimelineDTO.Point> points = new ArrayList<>(minutes);
+        for (int i = 0; i < minutes; i++) {
+            String minute = Instant.ofEpochSecond((from + i) * BUCKET_SECONDS).toString();
+            points.add(new VoteTimelineDTO.Point(minute, real[i], fake[i]));
+        }
+        return new VoteTimelineDTO(newsId, BUCKET_SECONDS, points);
+    }
+
+    @Scheduled(fixedDelay = BUCKET_SECONDS * 1000L)
+    public void evictIdle() {
+        long oldest = currentMinute() - minutes;
+        // computeIfPresent ล็อก key เดียวกับ add จึงไม่ลบ series ที่กำลังถูกบวกอยู่
+        for (Long newsId : series.keySet()) {
+            series.computeIfPresent(newsId, (id, votes) -> votes.lastMinute() <= oldest ? null : votes);
+        }
+    }
+
+    private void add(Long newsId, int real, int fake) {
+        long minute = currentMinute();
+        series.compute(newsId, (id, votes) -> {
+            Series target = votes != null ? votes : new Series(minutes);
+            target.add(minute, real, fake);
+            return target;
+        });
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / (BUCKET_SECONDS * 1000L);
+    }
+
+    // ช่อง i เก็บนาทีที่ minute % size == i; minuteOf บอกว่าค่าในช่องเป็นของนาทีไหน (ช่องที่ค้างจากรอบก่อนถือเป็นศูนย์)
+    private static final class Series {
+        private final int[] real;
+        private final int[] fake;
+        private final long[] minuteOf;
+        private long lastMinute;
+
+        Series(int size) {
+            real = new int[size];
+            fake = new int[size];
+            minuteOf = new long[size];
+            Arrays.fill(minuteOf, -1);
+        }
+
+        synchronized void add(long minute, int realVotes, int fakeVotes) {
+            int slot = (int) Math.floorMod(minute, (long) minuteOf.length);
+            if (minuteOf[slot] != minute) {
+                minuteOf[slot] = minute;
+                real[slot] = 0;
+                fake[slot] = 0;
+            }
+            real[slot] += realVotes;
+            fake[slot] += fakeVotes;
+            lastMinute = Math.max(lastMinute, minute);
+        }
+
+        synchronized void copyTo(long fromMinute, int[] realOut, int[] fakeOut) {
+            for (int i = 0; i < realOut.length; i++) {
+                long minute = fromMinute + i;
+                int slot = (int) Math.floorMod(minute, (long) minuteOf.length);
+                if (minuteOf[slot] == minute) {
+                    realOut[i] = real[slot];
+                    fakeOut[i] = fake[slot];
+                }
+            }
+        }
+
+        synchronized long lastMinute() {
+            return lastMinute;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package se331.backend.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import se331.backend.entity.NewsSummaryDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * cursor สำหรับ keyset pagination ของ /api/news/search
+ * เก็บ (sort field, ทิศทาง, ค่าของ field, id) ของข่าวตัวสุดท้ายที่ client เห็นแล้ว
+ * ส่งให้ client เป็น string แบบ opaque (Base64 URL-safe)
+ */
+@Getter
+@AllArgsConstructor
+public class NewsCursor {
+
+    public static final String DATE_TIME = "dateTime";
+    public static final String TOTAL_VOTES = "totalVotes";
+
+    private final String property;
+    private final boolean ascending;
+    private final String value;
+    private final long id;
+
+    public static boolean supports(String property) {
+        return DATE_TIME.equals(property) || TOTAL_VOTES.equals(property);
+    }
+
+    /**
+     * cursor ที่ชี้ต่อจากข่าว last หรือ null ถ้า sort นี้ทำ keyset ไม่ได้
+     * ใช้ยอดโหวตที่อ่านจาก column (ไม่รวมโหวตค้างของ write-behind) เพราะ NewsSpecifications.after seek บน column นั้น
+     */
+    public static NewsCursor after(Sort sort, NewsSummaryDTO last) {
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null || !supports(order.getProperty()) || last == null || last.getId() == null) {
+            return null;
+        }
+        String value = DATE_TIME.equals(order.getProperty())
+                ? last.getDateTime()
+                : String.valueOf(last.getStoredTotalVotes());
+        if (value == null) {
+            return null;
+        }
+        return new NewsCursor(order.getProperty(), order.isAscending(), value, last.getId());
+    }
+
+    public static NewsCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !supports(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            NewsCursor cursor = new NewsCursor(parts[0], "asc".equals(parts[1]), parts[2], Long.parseLong(parts[3]));
+            // ตรวจรูปแบบของค่าตั้งแต่ตอน decode
+            if (cursor.isDateTime()) {
+                cursor.getDateTimeValue();
+            } else {
+                cursor.getTotalVotesValue();
+            }
+            return cursor;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String raw = property + "|" + (ascending ? "asc" : "desc") + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort toSort() {
+        return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property);
+    }
+
+    public boolean isDateTime() {
+        return DATE_TIME.equals(property);
+    }
+
+    public Instant getDateTimeValue() {
+        return Instant.parse(value);
+    }
+
+    public int getTotalVotesValue() {
+        return Integer.parseInt(value);
+    }
+}
@@ -42,6 +42,7 @@ public class NewsMapper {
                         : null
         );
         dto.setRemoved(news.isRemoved());
+        dto.setStatus(news.getStatus() != null ? news.getStatus().name().toLowerCase() : null);
 
         List<Comment> comments = news.getComments();
         List<CommentDTO> commentDTOs = (comments == null ? List.<CommentDTO>of() : comments.stream()
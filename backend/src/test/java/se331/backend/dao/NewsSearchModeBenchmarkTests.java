@@ -0,0 +1,130 @@
+package se331.backend.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.repository.NewsRepository;
+import se331.backend.util.NewsCursor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ค้นหา keyword เดียวกันบนข่าวชุดเดียวกันด้วย news.search.mode = like และ fulltext
+ * ทั้งสองทางต้องได้ข่าวชุดเดียวกันทั้งแบบหน้า (OFFSET), cursor และ facets
+ * เวลาเฉลี่ยต่อหน้าของทั้งสองทางแสดงใน log
+ * (keyword เป็นคำทั้งคำที่ไม่มีในข่าวอื่น LIKE '%keyword%' กับ MATCH จึงตรงกับข่าวชุดเดียวกัน)
+ */
+@Slf4j
+@SpringBootTest(properties = "news.search.mode=fulltext")
+class NewsSearchModeBenchmarkTests {
+
+    private static final String KEYWORD = "qxzjv";
+    private static final int MATCHING = 300;
+    private static final int OTHERS = 1_700;
+    // ข่าวที่ตรงกระจายทุก SPREAD แถวในช่วงแรก ไม่กองอยู่ท้ายตาราง
+    private static final int SPREAD = 5;
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private NewsDao newsDao;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Test
+    void likeAndFullTextFindTheSameNews() {
+        List<Long> matching = createNews();
+        Sort byDate = Sort.by(Sort.Direction.DESC, "dateTime");
+
+        long likeMicros = timePages("like", byDate);
+        List<Long> likePages = pagedIds(byDate);
+        List<Long> likeCursor = cursorIds(byDate);
+        List<NewsDao.FacetCount> likeFacets = newsDao.countByStatusAndReporter(KEYWORD, false);
+        long likeCount = newsDao.count(KEYWORD, null, false);
+
+        long fullTextMicros = timePages("fulltext", byDate);
+        List<Long> fullTextPages = pagedIds(byDate);
+        List<Long> fullTextCursor = cursorIds(byDate);
+        List<NewsDao.FacetCount> fullTextFacets = newsDao.countByStatusAndReporter(KEYWORD, false);
+        long fullTextCount = newsDao.count(KEYWORD, null, false);
+
+        log.info("'{}' on {} news ({} matching), {} rounds: like {} µs/page, fulltext {} µs/page",
+                KEYWORD, MATCHING + OTHERS, MATCHING, ROUNDS, likeMicros, fullTextMicros);
+
+        assertThat(likePages).containsExactlyInAnyOrderElementsOf(matching);
+        assertThat(fullTextPages).isEqualTo(likePages);
+        assertThat(likeCursor).isEqualTo(likePages);
+        assertThat(fullTextCursor).isEqualTo(likePages);
+        assertThat(fullTextFacets).containsExactlyInAnyOrderElementsOf(likeFacets);
+        assertThat(fullTextCount).isEqualTo(likeCount).isEqualTo(MATCHING);
+    }
+
+    // ตั้ง mode แล้วอุ่นเครื่องหนึ่งรอบ จากนั้นจับเวลาเฉลี่ยของหน้าแรก
+    private long timePages(String mode, Sort sort) {
+        Object target = AopTestUtils.getTargetObject(newsDao);
+        ReflectionTestUtils.setField(target, "searchMode", mode);
+        newsDao.searchByKeyword(KEYWORD, PageRequest.of(0, PAGE_SIZE, sort));
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            newsDao.searchByKeyword(KEYWORD, PageRequest.of(0, PAGE_SIZE, sort));
+        }
+        return (System.nanoTime() - start) / 1000 / ROUNDS;
+    }
+
+    private List<Long> pagedIds(Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        Slice<NewsSummaryDTO> slice = newsDao.searchByKeyword(KEYWORD, PageRequest.of(0, PAGE_SIZE, sort));
+        slice.forEach(news -> ids.add(news.getId()));
+        while (slice.hasNext()) {
+            slice = newsDao.searchByKeyword(KEYWORD, slice.nextPageable());
+            slice.forEach(news -> ids.add(news.getId()));
+        }
+        return ids;
+    }
+
+    private List<Long> cursorIds(Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        NewsCursor after = null;
+        List<NewsSummaryDTO> page;
+        do {
+            page = newsDao.findAfter(KEYWORD, null, false, sort, after, PAGE_SIZE);
+            page.forEach(news -> ids.add(news.getId()));
+            after = page.isEmpty() ? null : NewsCursor.after(sort, page.get(page.size() - 1));
+        } while (page.size() == PAGE_SIZE && ids.size() <= MATCHING);
+        return ids;
+    }
+
+    private List<Long> createNews() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        List<News> news = new ArrayList<>(MATCHING + OTHERS);
+        for (int i = 0; i < MATCHING + OTHERS; i++) {
+            boolean matches = i % SPREAD == 0 && i < MATCHING * SPREAD;
+            String topic = matches ? "Benchmark " + KEYWORD + " story" : "Benchmark ordinary story";
+            news.add(News.builder()
+                    .topic(topic)
+                    .shortDetail("search mode benchmark")
+                    .fullDetail("search mode benchmark")
+                    .reporter(i % 2 == 0 ? "Reporter A" : "Reporter B")
+                    // บางข่าวเวลาเดียวกัน เพื่อให้ cursor ต้องตัดสินด้วย id
+                    .dateTime(start.plusSeconds(i / 10))
+                    .build());
+        }
+        return newsRepository.saveAll(news).stream()
+                .filter(saved -> saved.getTopic().contains(KEYWORD))
+                .map(News::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package se331.backend.rest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import se331.backend.entity.CreateCommentRequest;
+import se331.backend.entity.News;
+import se331.backend.repository.NewsRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * นำเข้า comment จำนวนเท่ากันผ่าน POST /api/comments ทีละรายการ กับ POST /api/comments/bulk ครั้งเดียว
+ * bulk ต้องใช้ SQL statement น้อยกว่ามาก (นับด้วย Hibernate Statistics) และได้ยอดโหวตตรงกับทางทีละรายการ
+ * เวลาของทั้งสองทางแสดงใน log
+ * (ปิด security filter: test นี้วัดจำนวน statement ไม่ได้ตรวจสิทธิ์ของ endpoint)
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc(addFilters = false)
+class CommentBulkImportBenchmarkTests {
+
+    private static final int COMMENTS = 500;
+
+    // ทีละรายการใช้หลาย statement ต่อ comment ส่วน bulk ใช้ไม่กี่ statement ต่อ batch
+    private static final int MIN_STATEMENT_RATIO = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Test
+    void bulkImportMatchesSingleInsertsWithFarFewerStatements() throws Exception {
+        News single = createNews("Single insert benchmark");
+        News bulk = createNews("Bulk insert benchmark");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long singleStart = System.nanoTime();
+        for (CreateCommentRequest request : requests(single.getId())) {
+            mockMvc.perform(post("/api/comments")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+        long singleMillis = (System.nanoTime() - singleStart) / 1_000_000;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        List<CreateCommentRequest> bulkRequests = requests(bulk.getId());
+        CreateCommentRequest invalid = new CreateCommentRequest();
+        invalid.setUsername("partner");
+        invalid.setVote("maybe");
+        invalid.setNewsId(bulk.getId());
+        bulkRequests.add(invalid);
+
+        statistics.clear();
+        long bulkStart = System.nanoTime();
+        mockMvc.perform(post("/api/comments/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkRequests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(COMMENTS))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.items[" + COMMENTS + "].status").value("rejected"))
+                .andExpect(jsonPath("$.items[0].commentId").isNumber());
+        long bulkMillis = (System.nanoTime() - bulkStart) / 1_000_000;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        log.info("{} comments: single {} ms / {} statements, bulk {} ms / {} statements",
+                COMMENTS, singleMillis, singleStatements, bulkMillis, bulkStatements);
+
+        assertThat(bulkStatements * MIN_STATEMENT_RATIO).isLessThan(singleStatements);
+
+        News afterSingle = newsRepository.findById(single.getId()).orElseThrow();
+        News afterBulk = newsRepository.findById(bulk.getId()).orElseThrow();
+        assertThat(afterBulk.getRealVotes()).isEqualTo(afterSingle.getRealVotes());
+        assertThat(afterBulk.getFakeVotes()).isEqualTo(afterSingle.getFakeVotes());
+        assertThat(afterBulk.getCommentCount()).isEqualTo(COMMENTS);
+        assertThat(afterSingle.getCommentCount()).isEqualTo(COMMENTS);
+        assertThat(afterBulk.getStatus()).isEqualTo(afterSingle.getStatus());
+    }
+
+    private News createNews(String topic) {
+        return newsRepository.save(News.builder()
+                .topic(topic)
+                .shortDetail(topic)
+                .fullDetail(topic)
+                .reporter("Test")
+                .dateTime(Instant.now())
+                .build());
+    }
+
+    private static List<CreateCommentRequest> requests(Long newsId) {
+        List<CreateCommentRequest> requests = new ArrayList<>(COMMENTS);
+        for (int i = 0; i < COMMENTS; i++) {
+            CreateCommentRequest request = new CreateCommentRequest();
+            request.setUsername("partner");
+            request.setText("imported " + i);
+            request.setVote(i % 3 == 0 ? "fake" : "real");
+            request.setNewsId(newsId);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
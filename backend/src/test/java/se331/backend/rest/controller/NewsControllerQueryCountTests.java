@@ -0,0 +1,107 @@
+package se331.backend.rest.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import se331.backend.entity.NewsBody;
+import se331.backend.service.NewsCountCache;
+import se331.backend.service.NewsSearchCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * จำนวน SQL statement ต่อ request ต้องไม่โตตามจำนวนข่าว/คอมเมนต์ (กัน N+1 กลับมา)
+ * ล้าง count cache และ search cache ก่อนทุก test จึงนับ statement ตอน cache ว่างได้ตรงตัว
+ * list: ข่าว 1 query + comment ล่าสุดของทั้งหน้า 1 query (+ count) และไม่แตะ news_body
+ * detail: ข่าว + fullDetail (news_body) + comments
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class NewsControllerQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NewsCountCache newsCountCache;
+
+    @Autowired
+    private NewsSearchCache newsSearchCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetCachesAndStatistics() {
+        newsCountCache.invalidateAll();
+        newsSearchCache.invalidateAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchPageIsPageCommentsAndCount() throws Exception {
+        mockMvc.perform(get("/api/news/search").param("_page", "1").param("_limit", "10"))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void cursorPageIsPageCommentsAndCount() throws Exception {
+        mockMvc.perform(get("/api/news/search").param("cursor", "").param("_sort", "dateTime").param("_limit", "10"))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void allNewsIsTwoSelects() throws Exception {
+        mockMvc.perform(get("/api/news")).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void newsDetailLoadsCommentsInOneQuery() throws Exception {
+        Long id = anyNewsId();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/news/{id}", id)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityStatistics(NewsBody.class.getName()).getLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listDoesNotLoadFullDetail() throws Exception {
+        mockMvc.perform(get("/api/news/search").param("_page", "1").param("_limit", "10"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/news")).andExpect(status().isOk());
+
+        assertThat(statistics.getEntityStatistics(NewsBody.class.getName()).getLoadCount()).isZero();
+    }
+
+    // id เดียว ไม่โหลดข่าว (และ news_body) ทั้งตาราง
+    private Long anyNewsId() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select n.id from News n where n.removed = false order by n.id", Long.class)
+                    .setMaxResults(1)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
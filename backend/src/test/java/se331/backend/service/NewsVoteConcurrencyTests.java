@@ -0,0 +1,83 @@
+package se331.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import se331.backend.entity.CreateCommentRequest;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+import se331.backend.repository.NewsRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * โหวตพร้อมกันหลาย thread บนข่าวเดียวกันต้องไม่มีโหวตหาย (ตัวนับถูกปรับใน UPDATE เดียวของ database)
+ */
+@SpringBootTest
+class NewsVoteConcurrencyTests {
+
+    private static final int THREADS = 8;
+    private static final int VOTES_PER_THREAD = 25;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Test
+    void concurrentVotesAreNotLost() throws Exception {
+        News news = newsRepository.save(News.builder()
+                .topic("Concurrent vote test")
+                .shortDetail("concurrent votes")
+                .fullDetail("concurrent votes")
+                .reporter("Test")
+                .dateTime(Instant.now())
+                .build());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                // thread คู่โหวต real, thread คี่โหวต fake
+                String vote = t % 2 == 0 ? "real" : "fake";
+                Callable<Void> voter = () -> {
+                    start.await();
+                    for (int i = 0; i < VOTES_PER_THREAD; i++) {
+                        CreateCommentRequest request = new CreateCommentRequest();
+                        request.setUsername("voter");
+                        request.setText("vote " + i);
+                        request.setVote(vote);
+                        commentService.createComment(news.getId(), request);
+                    }
+                    return null;
+                };
+                results.add(executor.submit(voter));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        News voted = newsRepository.findById(news.getId()).orElseThrow();
+        int perSide = THREADS / 2 * VOTES_PER_THREAD;
+        assertThat(voted.getRealVotes()).isEqualTo(perSide);
+        assertThat(voted.getFakeVotes()).isEqualTo(perSide);
+        assertThat(voted.getTotalVotes()).isEqualTo(2 * perSide);
+        assertThat(voted.getCommentCount()).isEqualTo(THREADS * VOTES_PER_THREAD);
+        assertThat(voted.getStatus()).isEqualTo(NewsStatus.EQUAL);
+    }
+}
@@ -0,0 +1,215 @@
+package se331.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import se331.backend.dao.NewsDao;
+import se331.backend.entity.CreateCommentRequest;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsCursorPage;
+import se331.backend.entity.NewsSummaryDTO;
+import se331.backend.repository.NewsRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * news.vote.write-behind: โหวตค้างใน buffer ถูกรวมตอนอ่าน, rollback หักคืน, flush ไม่นับซ้ำ (รวมระหว่าง NDJSON stream),
+ * cursor ของ _sort=totalVotes ไม่ข้าม/ไม่ซ้ำ
+ * และ flush ตอนปิดแอป
+ * (flush ตามรอบถูกเลื่อนออกไปไกล ทุก flush ในนี้จึงเรียกเอง)
+ */
+@SpringBootTest(properties = {
+        "news.vote.write-behind.enabled=true",
+        "news.vote.write-behind.flush-interval-ms=3600000"
+})
+class NewsVoteWriteBehindTests {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsDao newsDao;
+
+    @Autowired
+    private NewsVoteBuffer newsVoteBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void pendingVotesAreMergedAndFlushedOnce() {
+        Long newsId = createNews();
+        vote(newsId, "real");
+        vote(newsId, "real");
+        vote(newsId, "fake");
+
+        // database ยังไม่ถูกแตะ แต่ค่าที่อ่านผ่าน NewsDao รวมยอดค้างแล้ว
+        assertThat(storedVotes(newsId)).containsEntry("real_votes", 0).containsEntry("comment_count", 0);
+        assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(new NewsVoteBuffer.Delta(2, 1, 3));
+        assertVotes(summary(newsId), 2, 1, 3, "real");
+
+        newsVoteBuffer.flush();
+
+        assertThat(storedVotes(newsId))
+                .containsEntry("real_votes", 2)
+                .containsEntry("fake_votes", 1)
+                .containsEntry("total_votes", 3)
+                .containsEntry("comment_count", 3)
+                .containsEntry("status", "REAL");
+        assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(NewsVoteBuffer.Delta.NONE);
+        assertVotes(summary(newsId), 2, 1, 3, "real");
+    }
+
+    @Test
+    void flushWaitsForActiveReaders() {
+        Long newsId = createNews();
+        vote(newsId, "fake");
+
+        // ระหว่างที่ผู้อ่านถือ read lock flush ต้องไม่เขียน database หรือหักยอดค้าง (รอไม่ได้ก็ข้ามรอบ)
+        newsVoteBuffer.read(() -> {
+            CompletableFuture.runAsync(newsVoteBuffer::flush).join();
+            assertThat(storedVotes(newsId)).containsEntry("fake_votes", 0);
+            assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(new NewsVoteBuffer.Delta(0, 1, 1));
+            assertVotes(summary(newsId), 0, 1, 1, "fake");
+            return null;
+        });
+
+        newsVoteBuffer.flush();
+
+        assertThat(storedVotes(newsId)).containsEntry("fake_votes", 1);
+        assertVotes(summary(newsId), 0, 1, 1, "fake");
+    }
+
+    @Test
+    void openStreamDoesNotBlockFlush() {
+        Long newsId = createNews();
+        vote(newsId, "real");
+        List<NewsSummaryDTO> streamed = new ArrayList<>();
+
+        // flush ระหว่างที่ cursor ของ stream ยังเปิดอยู่ต้องเขียนได้ทันที และแถวที่ stream ส่งต่อต้องไม่นับซ้ำ
+        // (cursor เห็น database ตอนเปิด + ยอดค้างตอนเปิด)
+        newsDao.forEach(null, true, Sort.by(Sort.Direction.DESC, "dateTime"), news -> {
+            if (streamed.isEmpty()) {
+                CompletableFuture.runAsync(newsVoteBuffer::flush).join();
+                assertThat(storedVotes(newsId)).containsEntry("real_votes", 1);
+                assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(NewsVoteBuffer.Delta.NONE);
+            }
+            streamed.add(news);
+        });
+
+        NewsSummaryDTO fromStream = streamed.stream()
+                .filter(news -> news.getId().equals(newsId))
+                .findFirst()
+                .orElseThrow();
+        assertVotes(fromStream, 1, 0, 1, "real");
+        assertVotes(summary(newsId), 1, 0, 1, "real");
+    }
+
+    @Test
+    void cursorSeeksOnStoredTotalVotes() {
+        String topic = "Write-behind cursor " + System.nanoTime();
+        Long first = createNews(topic);
+        Long second = createNews(topic);
+        Long third = createNews(topic);
+        vote(first, "real");
+        vote(first, "real");
+        vote(second, "fake");
+        newsVoteBuffer.flush();
+        // ข่าวแรกของหน้ามีโหวตค้าง: totalVotes ที่แสดง (3) ไม่ใช่ค่าใน column (2) ที่ cursor ต้อง seek
+        vote(first, "real");
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        Sort byVotes = Sort.by(Sort.Direction.DESC, "totalVotes");
+        do {
+            NewsCursorPage page = newsService.getNewsAfter(topic, null, byVotes, cursor, 1, false);
+            page.getContent().forEach(news -> seen.add(news.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && seen.size() <= 3);
+
+        assertThat(seen).containsExactly(first, second, third);
+    }
+
+    @Test
+    void rolledBackVotesAreTakenBackOut() {
+        Long newsId = createNews();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            vote(newsId, "real");
+            assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(new NewsVoteBuffer.Delta(1, 0, 1));
+            status.setRollbackOnly();
+        });
+
+        assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(NewsVoteBuffer.Delta.NONE);
+        assertVotes(summary(newsId), 0, 0, 0, "equal");
+    }
+
+    @Test
+    void shutdownFlushWritesPendingVotes() {
+        Long newsId = createNews();
+        vote(newsId, "real");
+
+        newsVoteBuffer.flushOnShutdown();
+
+        assertThat(storedVotes(newsId)).containsEntry("real_votes", 1).containsEntry("comment_count", 1);
+        assertThat(newsVoteBuffer.pending(newsId)).isEqualTo(NewsVoteBuffer.Delta.NONE);
+    }
+
+    private Long createNews() {
+        return createNews("Write-behind vote test");
+    }
+
+    private Long createNews(String topic) {
+        return newsRepository.save(News.builder()
+                .topic(topic)
+                .shortDetail("write-behind votes")
+                .fullDetail("write-behind votes")
+                .reporter("Test")
+                .dateTime(Instant.now())
+                .build()).getId();
+    }
+
+    private void vote(Long newsId, String vote) {
+        CreateCommentRequest request = new CreateCommentRequest();
+        request.setUsername("voter");
+        request.setText("vote " + vote);
+        request.setVote(vote);
+        commentService.createComment(newsId, request);
+    }
+
+    private NewsSummaryDTO summary(Long newsId) {
+        return newsDao.findSummariesById(List.of(newsId)).get(0);
+    }
+
+    // ค่าในแถวจริง ไม่ผ่าน buffer
+    private Map<String, Object> storedVotes(Long newsId) {
+        return jdbcTemplate.queryForMap(
+                "select real_votes, fake_votes, total_votes, comment_count, status from news where id = ?", newsId);
+    }
+
+    private static void assertVotes(NewsSummaryDTO news, long real, long fake, int comments, String status) {
+        assertThat(news.getVoteSummary().getReal()).isEqualTo(real);
+        assertThat(news.getVoteSummary().getFake()).isEqualTo(fake);
+        assertThat(news.getTotalVotes()).isEqualTo((int) (real + fake));
+        assertThat(news.getCommentCount()).isEqualTo(comments);
+        assertThat(news.getStatus()).isEqualTo(status);
+    }
+}
@@ -0,0 +1,136 @@
+package se331.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+import se331.backend.entity.News;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: NewsComparators.sort เทียบกับ sortNewsList เดิม (ก่อน user-001) บนข่าวชุดเดียวกัน
+ * ทั้งสองทางเรียงสำเนาของ list (sortNewsList สำเนาเอง) จึงวัดงานเท่ากัน
+ *
+ * รัน: mvn test-compile แล้ว java -cp "target/test-classes:target/classes:<test classpath>" \
+ *      se331.backend.util.NewsComparatorsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewsComparatorsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    @Param({"dateTime", "totalVotes,dateTime"})
+    private String sortBy;
+
+    private List<News> news;
+    private List<NewsSummaryDTO> summaries;
+    private Sort sort;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        news = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Instant dateTime = start.plusMillis(random.nextInt(90 * 24 * 3600) * 1000L + random.nextInt(1000));
+            int real = random.nextInt(50);
+            int fake = random.nextInt(50);
+            int comments = real + fake;
+            news.add(News.builder()
+                    .id(id)
+                    .dateTime(dateTime)
+                    .realVotes(real)
+                    .fakeVotes(fake)
+                    .totalVotes(real + fake)
+                    .commentCount(comments)
+                    .build());
+            summaries.add(new NewsSummaryDTO(id, "topic", "short", null, "reporter", dateTime,
+                    real, fake, comments, NewsStatus.of(real, fake), false));
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String property : sortBy.split(",")) {
+            orders.add(Sort.Order.desc(property));
+        }
+        sort = Sort.by(orders);
+    }
+
+    @Benchmark
+    public List<NewsSummaryDTO> compiledComparator() {
+        List<NewsSummaryDTO> sorted = new ArrayList<>(summaries);
+        NewsComparators.sort(sorted, sort);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<News> legacySortNewsList() {
+        return sortNewsList(news, sort);
+    }
+
+    // สำเนาของ NewsDaoImpl.sortNewsList ก่อน user-001 (เรียงทั้ง list ซ้ำหนึ่งรอบต่อ key)
+    private static List<News> sortNewsList(List<News> list, Sort sort) {
+        if (sort.isUnsorted()) {
+            return list;
+        }
+
+        List<News> sortedList = new ArrayList<>(list);
+
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            boolean isAsc = order.isAscending();
+
+            sortedList.sort((a, b) -> {
+                int comparison = 0;
+
+                switch (property) {
+                    case "dateTime":
+                        comparison = a.getDateTime().compareTo(b.getDateTime());
+                        break;
+                    case "totalVotes":
+                        comparison = Integer.compare(a.getTotalVotes(), b.getTotalVotes());
+                        break;
+                    case "commentCount":
+                        comparison = Integer.compare(a.getCommentCount(), b.getCommentCount());
+                        break;
+                    default:
+                        comparison = 0;
+                }
+
+                return isAsc ? comparison : -comparison;
+            });
+        }
+
+        return sortedList;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NewsComparatorsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
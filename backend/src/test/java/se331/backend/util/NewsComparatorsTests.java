@@ -0,0 +1,85 @@
+package se331.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import se331.backend.entity.NewsStatus;
+import se331.backend.entity.NewsSummaryDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ลำดับของ NewsComparators ต้องตรงกับ ORDER BY ใน NewsSpecifications (หลาย key แล้ว id desc)
+ */
+class NewsComparatorsTests {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Test
+    void firstKeyWinsAndLaterKeysBreakTies() {
+        List<NewsSummaryDTO> news = new ArrayList<>(List.of(
+                news(1L, T0, 5, 0),
+                news(2L, T0.plusSeconds(60), 5, 0),
+                news(3L, T0, 9, 0)));
+
+        NewsComparators.sort(news, Sort.by(Sort.Order.desc("totalVotes"), Sort.Order.asc("dateTime")));
+
+        assertThat(ids(news)).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void tiesFallBackToIdDescending() {
+        List<NewsSummaryDTO> news = new ArrayList<>(List.of(
+                news(1L, T0, 1, 1),
+                news(3L, T0, 1, 1),
+                news(2L, T0, 1, 1)));
+
+        NewsComparators.sort(news, Sort.by(Sort.Direction.DESC, "commentCount"));
+
+        assertThat(ids(news)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void dateTimeComparesInstantsNotStrings() {
+        // "…:00Z" > "…:00.500Z" ถ้าเทียบเป็น String
+        List<NewsSummaryDTO> news = new ArrayList<>(List.of(
+                news(1L, T0.plusMillis(500), 0, 0),
+                news(2L, T0, 0, 0)));
+
+        NewsComparators.sort(news, Sort.by(Sort.Direction.ASC, "dateTime"));
+
+        assertThat(ids(news)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void dateTimeKeyMatchesInstantAtMicrosecondPrecision() {
+        for (Instant dateTime : List.of(T0, T0.plusMillis(500), T0.plusNanos(123_456_789), T0.plusNanos(1_000),
+                Instant.parse("1969-12-31T23:59:59.999999Z"), Instant.parse("+12024-01-01T00:00:00Z"))) {
+            long expected = dateTime.getEpochSecond() * 1_000_000L + dateTime.getNano() / 1_000;
+            assertThat(NewsComparators.epochMicros(news(1L, dateTime, 0, 0))).as(dateTime.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void unknownPropertiesKeepTheExistingOrder() {
+        List<NewsSummaryDTO> news = new ArrayList<>(List.of(
+                news(1L, T0, 0, 0),
+                news(2L, T0, 9, 0)));
+
+        NewsComparators.sort(news, Sort.by("topic"));
+
+        assertThat(ids(news)).containsExactly(1L, 2L);
+    }
+
+    private static NewsSummaryDTO news(Long id, Instant dateTime, int realVotes, int commentCount) {
+        return new NewsSummaryDTO(id, "topic " + id, "short", null, "reporter", dateTime,
+                realVotes, 0, commentCount, NewsStatus.of(realVotes, 0), false);
+    }
+
+    private static List<Long> ids(List<NewsSummaryDTO> news) {
+        return news.stream().map(NewsSummaryDTO::getId).toList();
+    }
+}
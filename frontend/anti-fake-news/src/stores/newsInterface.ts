@@ -23,7 +23,9 @@ export interface News {
     fake: number
   }
   totalVotes: number
-  comments: Comment[]
+  commentCount?: number // จำนวน comment ทั้งหมด (list/search ไม่ส่ง comments มาแล้ว)
+  comments?: Comment[] // มีเฉพาะหน้ารายละเอียด (fetchNewsById)
+  latestComments?: Comment[] // comment ล่าสุดไม่กี่รายการที่มากับ list/search
   status?: 'fake' | 'not fake' | 'equal' | 'removed'
   removed?: boolean
 }
@@ -35,6 +37,9 @@ export interface VoteSummary {
 
 export type Vote = 'real' | 'fake'
 
+export const commentCountOf = (news: Pick<News, 'commentCount' | 'comments'>): number =>
+  news.commentCount ?? news.comments?.length ?? 0
+
 
 interface NewsState {
   allNews: News[]
@@ -101,7 +106,7 @@ export const useNewsStore = defineStore('news', {
         return {
           ...newsItem,
           status: calculatedStatus,
-          comments: newsItem.comments || [],
+          comments: newsItem.comments ?? newsItem.latestComments ?? [],
         }
       }
     },
@@ -183,6 +188,7 @@ export const useNewsStore = defineStore('news', {
           } else {
             this.allNews.unshift({
               comments: [],
+              commentCount: 0,
               totalVotes: 0,
               voteSummary: { real: 0, fake: 0 },
               ...createdNews,
@@ -223,6 +229,7 @@ export const useNewsStore = defineStore('news', {
         this.currentNews = {
           ...newsResponse.data,
           comments,
+          commentCount: comments.length,
         }
 
         const index = this.allNews.findIndex((n) => n.id === id)
@@ -302,6 +309,7 @@ export const useNewsStore = defineStore('news', {
         vote: vote,
       }
 
+      newsItem.commentCount = commentCountOf(newsItem) + 1
       newsItem.comments.push(newComment)
 
       if (!newsItem.voteSummary) {